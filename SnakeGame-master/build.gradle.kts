@@ -1,6 +1,7 @@
 plugins {
     id("java")
     id("application")
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.test"
@@ -37,6 +38,14 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// Microbenchmarks for the game core live in src/jmh/java; run with `gradle jmh`.
+// The gc profiler reports allocated bytes per operation next to ops/sec.
+jmh {
+    jmhVersion.set("1.37")
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+}
+
 tasks.jar {
     manifest {
         attributes["Main-Class"] = "com.snakegame.SnakeGame"
@@ -60,4 +69,38 @@ tasks.register<JavaExec>("runGameOnly") {
     description = "Run game directly with test user"
     classpath = sourceSets["main"].runtimeClasspath
     mainClass.set("com.snakegame.TestGame")
-}
\ No newline at end of file
+}
+
+// Task to run the simulation core headless and report ticks per second
+tasks.register<JavaExec>("runHeadless") {
+    group = "application"
+    description = "Run greedy-bot games without a display and report simulation throughput"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.snakegame.sim.HeadlessRunner")
+}
+
+// Task to run many seeded headless games in parallel for difficulty balancing
+// e.g. gradle runBatchSim --args="games=100000 difficulty=HARD policy=random"
+tasks.register<JavaExec>("runBatchSim") {
+    group = "application"
+    description = "Run a parallel Monte Carlo batch of headless games and report stats"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.snakegame.sim.BatchSimulator")
+}
+
+// Task to benchmark replay-based score verification on a worker pool
+// e.g. gradle runVerifierBench --args="games=20000 threads=4"
+tasks.register<JavaExec>("runVerifierBench") {
+    group = "application"
+    description = "Verify recorded games on a worker pool and report verifications per second"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.snakegame.sim.ScoreVerificationPool")
+}
+
+// One-off job that builds the userBest index behind the global leaderboard
+tasks.register<JavaExec>("runUserBestBackfill") {
+    group = "application"
+    description = "Build userBest/{userId} from the stored scores and mark the index complete"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.snakegame.firebase.UserBestBackfill")
+}
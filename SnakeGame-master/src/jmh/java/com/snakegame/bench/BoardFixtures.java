@@ -0,0 +1,72 @@
+package com.snakegame.bench;
+
+import com.snakegame.Direction;
+import com.snakegame.Snake;
+
+/**
+ * Builds long snakes for the benchmarks by walking a Hamiltonian cycle over
+ * an even-sized square board: right along row 0, a serpentine through
+ * columns 1..n-1 of the remaining rows, then back up column 0. A snake that
+ * keeps following the cycle never leaves the board or runs into itself.
+ */
+final class BoardFixtures {
+    private BoardFixtures() {}
+
+    /**
+     * Tracks the head's cell along the cycle without asking the snake, so
+     * benchmark loops do not pay for {@link Snake#getHead()}.
+     */
+    static final class CycleWalker {
+        private final int n;
+        private int column;
+        private int row;
+
+        CycleWalker(int n, int column, int row) {
+            this.n = n;
+            this.column = column;
+            this.row = row;
+        }
+
+        /**
+         * @return the direction out of the current cell, advancing past it
+         */
+        Direction next() {
+            Direction direction = cycleDirection(column, row, n);
+            column += direction.dx;
+            row += direction.dy;
+            return direction;
+        }
+    }
+
+    static Direction cycleDirection(int column, int row, int n) {
+        if (row == 0) {
+            return column < n - 1 ? Direction.RIGHT : Direction.DOWN;
+        }
+        if (column == 0) {
+            return Direction.UP;
+        }
+        if (row % 2 == 1) {
+            if (column > 1) return Direction.LEFT;
+            return row == n - 1 ? Direction.LEFT : Direction.DOWN;
+        }
+        return column < n - 1 ? Direction.RIGHT : Direction.DOWN;
+    }
+
+    /**
+     * Lays a snake of the given length along the cycle on an n x n board with
+     * one-pixel cells, leaving the walker at its head. Length must be below n * n.
+     */
+    static Snake snakeOnCycle(int n, int length, CycleWalker walker) {
+        Snake snake = new Snake(2, 0, 1, n, n);
+        while (snake.size() < length) {
+            snake.setDirection(walker.next());
+            snake.move();
+            snake.grow();
+        }
+        return snake;
+    }
+
+    static CycleWalker walkerAtStart(int n) {
+        return new CycleWalker(n, 2, 0);
+    }
+}
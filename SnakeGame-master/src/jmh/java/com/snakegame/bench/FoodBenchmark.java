@@ -0,0 +1,54 @@
+package com.snakegame.bench;
+
+import com.snakegame.Food;
+import com.snakegame.Snake;
+import com.snakegame.sim.GameRandom;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Food placement against how much of the board the snake covers. The special
+ * food benchmark measures the free-cell draw that replaced the retry loop in
+ * GamePanel.spawnSpecialFood().
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FoodBenchmark {
+    @Param({"256", "1024"})
+    int boardSize;
+
+    @Param({"0.0", "0.5", "0.99"})
+    double fill;
+
+    private Snake snake;
+    private Food food;
+    private GameRandom random;
+    private int foodCell;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int length = Math.max(3, (int) (fill * boardSize * boardSize));
+        snake = BoardFixtures.snakeOnCycle(boardSize, length, BoardFixtures.walkerAtStart(boardSize));
+        food = new Food(boardSize, boardSize, 1, snake.getFreeCells(), new GameRandom(1));
+        random = new GameRandom(42);
+
+        foodCell = food.getY() * boardSize + food.getX();
+    }
+
+    @Benchmark
+    public int spawn() {
+        food.spawn();
+        // The cell, not getPosition(), which would allocate a Point per op
+        return food.getY() * boardSize + food.getX();
+    }
+
+    @Benchmark
+    public int spawnSpecialFood() {
+        return snake.getFreeCells().sampleExcluding(random, foodCell);
+    }
+}
@@ -0,0 +1,45 @@
+package com.snakegame.bench;
+
+import com.snakegame.Food;
+import com.snakegame.GameEngine;
+import com.snakegame.Snake;
+import com.snakegame.sim.GameRandom;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEngineBenchmark {
+    @Param({"256", "1024"})
+    int boardSize;
+
+    @Param({"16", "1024", "16384"})
+    int length;
+
+    private Snake snake;
+    private Food food;
+    private GameEngine engine;
+    private BoardFixtures.CycleWalker walker;
+
+    // Rebuilt every iteration so food eaten along the way cannot grow the
+    // snake far past the requested length
+    @Setup(Level.Iteration)
+    public void setUp() {
+        walker = BoardFixtures.walkerAtStart(boardSize);
+        snake = BoardFixtures.snakeOnCycle(boardSize, length, walker);
+        food = new Food(boardSize, boardSize, 1, snake.getFreeCells(), new GameRandom(1));
+        engine = new GameEngine(boardSize, boardSize, 1);
+    }
+
+    @Benchmark
+    public int update() {
+        snake.setDirection(walker.next());
+        engine.update(snake, food);
+        return engine.getScore();
+    }
+}
@@ -0,0 +1,40 @@
+package com.snakegame.bench;
+
+import com.snakegame.sim.GameSimulation;
+import com.snakegame.sim.GreedyPolicy;
+import com.snakegame.sim.Policy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full headless ticks, policy decision included. A finished game is reset in
+ * place, so the steady state should report no allocation per tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+    @Param({"40", "256"})
+    int boardSize;
+
+    private final Policy policy = new GreedyPolicy();
+    private GameSimulation game;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = new GameSimulation(boardSize, boardSize, 10, 80, seed++);
+    }
+
+    @Benchmark
+    public int step() {
+        if (game.isGameOver()) {
+            game.reset(seed++);
+        }
+        return game.step(policy.choose(game));
+    }
+}
@@ -0,0 +1,40 @@
+package com.snakegame.bench;
+
+import com.snakegame.Snake;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnakeBenchmark {
+    @Param({"256", "1024"})
+    int boardSize;
+
+    @Param({"16", "1024", "16384"})
+    int length;
+
+    private Snake snake;
+    private BoardFixtures.CycleWalker walker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        walker = BoardFixtures.walkerAtStart(boardSize);
+        snake = BoardFixtures.snakeOnCycle(boardSize, length, walker);
+    }
+
+    @Benchmark
+    public void move() {
+        snake.setDirection(walker.next());
+        snake.move();
+    }
+
+    @Benchmark
+    public boolean checkSelfCollision() {
+        return snake.checkSelfCollision();
+    }
+}
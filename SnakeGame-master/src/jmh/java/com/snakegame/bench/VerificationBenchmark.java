@@ -0,0 +1,74 @@
+package com.snakegame.bench;
+
+import com.snakegame.models.Difficulty;
+import com.snakegame.sim.GameSimulation;
+import com.snakegame.sim.GreedyPolicy;
+import com.snakegame.sim.Policy;
+import com.snakegame.sim.Replay;
+import com.snakegame.sim.ReplayRecorder;
+import com.snakegame.sim.ScoreVerifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side cost of checking one submitted score by re-simulating its
+ * replay. The ticks counter reports replayed ticks per second alongside
+ * verifications per second, so the cost per tick is its inverse.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VerificationBenchmark {
+    private static final int REPLAYS = 256;
+    private static final int SPECIAL_FOOD_CHANCE = 80;
+    private static final int BONUS = 10;
+
+    @Param({"40", "256"})
+    int boardSize;
+
+    private ScoreVerifier verifier;
+    private Replay[] replays;
+    private int[] scores;
+    private int next;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Ticks {
+        public long ticks;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Difficulty difficulty = Difficulty.EASY;
+        Policy policy = new GreedyPolicy();
+        ReplayRecorder recorder = new ReplayRecorder();
+        GameSimulation game = new GameSimulation(boardSize, boardSize,
+                difficulty.getPointsPerFood(), SPECIAL_FOOD_CHANCE, 0);
+        game.setRecorder(recorder);
+
+        replays = new Replay[REPLAYS];
+        scores = new int[REPLAYS];
+        for (int i = 0; i < REPLAYS; i++) {
+            game.reset(i);
+            while (!game.isGameOver()) {
+                if ((game.step(policy.choose(game)) & GameSimulation.ATE_SPECIAL_FOOD) != 0) {
+                    game.addBonus(BONUS);
+                }
+            }
+            replays[i] = recorder.finish(game);
+            scores[i] = difficulty.calculateScore(game.getScore());
+        }
+        verifier = new ScoreVerifier(boardSize, boardSize, SPECIAL_FOOD_CHANCE, BONUS, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public ScoreVerifier.Verdict verify(Ticks counter) {
+        int i = next++ & (REPLAYS - 1);
+        counter.ticks += replays[i].getEndTick();
+        return verifier.verify(replays[i], Difficulty.EASY, scores[i]);
+    }
+}
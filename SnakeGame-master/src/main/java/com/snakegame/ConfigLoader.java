@@ -38,6 +38,8 @@ public class ConfigLoader {
         defaults.put("snakeColor", "#00FF00");
         defaults.put("foodColor", "#FF0000");
         defaults.put("gridColor", "#282828");
+        defaults.put("renderMode", "swing");
+        defaults.put("showFps", false);
         return defaults;
     }
     
@@ -69,6 +71,18 @@ public class ConfigLoader {
         return config.optString("gridColor", "#282828");
     }
     
+    /**
+     * "swing" paints through paintComponent; "active" renders from the game
+     * loop thread into a Canvas BufferStrategy.
+     */
+    public String getRenderMode() {
+        return config.optString("renderMode", "swing");
+    }
+    
+    public boolean isShowFps() {
+        return config.optBoolean("showFps", false);
+    }
+    
     public static JSONObject loadConfig() throws Exception {
         String content = new String(Files.readAllBytes(
                 Paths.get("config.json")));
@@ -0,0 +1,144 @@
+package com.snakegame;
+
+/**
+ * Screen regions that changed since the last frame, kept as a short list of
+ * rectangles in plain int arrays so collecting them allocates nothing.
+ *
+ * A new rectangle is merged into an existing one when their bounding box
+ * covers no more pixels than the two separately, so a straight run of snake
+ * cells becomes one strip but an L-shaped turn stays two rectangles. Past
+ * {@code maxRegions}, or once half the surface is damaged, it gives up and
+ * reports the whole surface.
+ */
+public class DamageTracker {
+    private final int surfaceWidth;
+    private final int surfaceHeight;
+    private final int maxRegions;
+
+    private final int[] left;
+    private final int[] top;
+    private final int[] right;
+    private final int[] bottom;
+    private int count;
+    private boolean full;
+
+    public DamageTracker(int surfaceWidth, int surfaceHeight, int maxRegions) {
+        this.surfaceWidth = surfaceWidth;
+        this.surfaceHeight = surfaceHeight;
+        this.maxRegions = maxRegions;
+        this.left = new int[maxRegions];
+        this.top = new int[maxRegions];
+        this.right = new int[maxRegions];
+        this.bottom = new int[maxRegions];
+    }
+
+    public void add(int x, int y, int width, int height) {
+        if (full) return;
+
+        int l = Math.max(x, 0);
+        int t = Math.max(y, 0);
+        int r = Math.min(x + width, surfaceWidth);
+        int b = Math.min(y + height, surfaceHeight);
+        if (l >= r || t >= b) return;
+
+        // Fold in every region the new one is worth merging with; a merge can
+        // make it worth merging with one it skipped, so rescan until stable
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < count; i++) {
+                int ul = Math.min(l, left[i]);
+                int ut = Math.min(t, top[i]);
+                int ur = Math.max(r, right[i]);
+                int ub = Math.max(b, bottom[i]);
+                long unionArea = (long) (ur - ul) * (ub - ut);
+                if (unionArea <= (long) (r - l) * (b - t) + area(i)) {
+                    l = ul;
+                    t = ut;
+                    r = ur;
+                    b = ub;
+                    removeAt(i);
+                    merged = true;
+                    break;
+                }
+            }
+        }
+
+        if (count == maxRegions) {
+            markAll();
+            return;
+        }
+        left[count] = l;
+        top[count] = t;
+        right[count] = r;
+        bottom[count] = b;
+        count++;
+
+        if (area() * 2 > (long) surfaceWidth * surfaceHeight) {
+            markAll();
+        }
+    }
+
+    public void markAll() {
+        full = true;
+        count = 0;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void clear() {
+        full = false;
+        count = 0;
+    }
+
+    /**
+     * @return number of regions; 0 when {@link #isFull()}
+     */
+    public int size() {
+        return count;
+    }
+
+    public int x(int index) {
+        return left[index];
+    }
+
+    public int y(int index) {
+        return top[index];
+    }
+
+    public int width(int index) {
+        return right[index] - left[index];
+    }
+
+    public int height(int index) {
+        return bottom[index] - top[index];
+    }
+
+    /**
+     * @return damaged pixels, counting overlaps between regions twice
+     */
+    public long area() {
+        if (full) {
+            return (long) surfaceWidth * surfaceHeight;
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += area(i);
+        }
+        return total;
+    }
+
+    private long area(int index) {
+        return (long) (right[index] - left[index]) * (bottom[index] - top[index]);
+    }
+
+    private void removeAt(int index) {
+        count--;
+        left[index] = left[count];
+        top[index] = top[count];
+        right[index] = right[count];
+        bottom[index] = bottom[count];
+    }
+}
@@ -13,4 +13,8 @@ public enum Direction {
         this.dx = dx;
         this.dy = dy;
     }
+
+    public boolean isOpposite(Direction other) {
+        return dx == -other.dx && dy == -other.dy;
+    }
 }
\ No newline at end of file
@@ -1,45 +1,75 @@
 package com.snakegame;
 
+import com.snakegame.sim.FreeCells;
+import com.snakegame.sim.GameRandom;
+
 import java.awt.*;
-import java.util.Random;
 
 public class Food {
-    private Point position;
+    private int x;
+    private int y;
     private int width;
     private int height;
     private int gridSize;
-    private Random random;
+    private GameRandom random;
+    private FreeCells freeCells;
 
-    public Food(int width, int height, int gridSize) {
+    /**
+     * @param random the game's food placement stream, so spawns follow its seed
+     */
+    public Food(int width, int height, int gridSize, FreeCells freeCells, GameRandom random) {
         this.width = width;
         this.height = height;
         this.gridSize = gridSize;
-        this.random = new Random();
+        this.random = random;
+        this.freeCells = freeCells;
         spawn();
     }
 
-    public void spawn() {
-        int maxX = (width / gridSize) - 1;
-        int maxY = (height / gridSize) - 1;
+    /**
+     * Moves the food to a uniformly chosen cell not covered by the snake.
+     * @return false if the board is full, in which case the food stays put
+     */
+    public boolean spawn() {
+        return spawnAvoiding(-1);
+    }
 
-        int x = random.nextInt(maxX) * gridSize;
-        int y = random.nextInt(maxY) * gridSize;
+    /**
+     * Like {@link #spawn()}, but also keeps clear of one extra cell
+     * (row * columns + column), such as the special food.
+     */
+    public boolean spawnAvoiding(int cell) {
+        int free = freeCells.sampleExcluding(random, cell);
+        if (free < 0) {
+            return false;
+        }
 
-        position = new Point(x, y);
+        int columns = width / gridSize;
+        x = (free % columns) * gridSize;
+        y = (free / columns) * gridSize;
+        return true;
     }
 
     public Point getPosition() {
-        return position;
+        return new Point(x, y);
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
     }
 
     public void draw(Graphics2D g, Color color) {
         g.setColor(color);
-        g.fillOval(position.x + 2, position.y + 2,
+        g.fillOval(x + 2, y + 2,
                 gridSize - 4, gridSize - 4);
 
         // Add shine effect
         g.setColor(color.brighter());
-        g.fillOval(position.x + 4, position.y + 4,
+        g.fillOval(x + 4, y + 4,
                 gridSize / 3, gridSize / 3);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.snakegame;
+
+/**
+ * Frames per second, mean frame time and mean pixels painted per frame over
+ * one-second windows, for comparing render paths. Only touched by the thread that renders, so it
+ * needs no locking; the label is rebuilt once per window, not per frame.
+ */
+public class FrameCounter {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private long windowStart = System.nanoTime();
+    private int frames;
+    private long renderNanos;
+    private long pixels;
+    private String label = "-- fps";
+
+    /**
+     * @param startNanos System.nanoTime when the frame began rendering
+     * @param pixelsPainted area the frame repainted
+     */
+    public void frameRendered(long startNanos, long pixelsPainted) {
+        long now = System.nanoTime();
+        frames++;
+        renderNanos += now - startNanos;
+        pixels += pixelsPainted;
+
+        long elapsed = now - windowStart;
+        if (elapsed >= WINDOW_NANOS) {
+            double fps = frames * 1e9 / elapsed;
+            double frameMillis = renderNanos / 1e6 / frames;
+            double kilopixels = pixels / 1000.0 / frames;
+            label = String.format("%.0f fps  %.2f ms  %.0f kpx", fps, frameMillis, kilopixels);
+            windowStart = now;
+            frames = 0;
+            renderNanos = 0;
+            pixels = 0;
+        }
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -1,7 +1,5 @@
 package com.snakegame;
 
-import java.awt.*;
-
 public class GameEngine {
     private int score;
     private int width;
@@ -36,10 +34,11 @@ public class GameEngine {
     }
 
     public boolean checkCollisions(Snake snake) {
-        Point head = snake.getHead();
+        int headX = snake.getHeadX();
+        int headY = snake.getHeadY();
 
         // Wall collision
-        if (head.x < 0 || head.x >= width || head.y < 0 || head.y >= height) {
+        if (headX < 0 || headX >= width || headY < 0 || headY >= height) {
             return true;
         }
 
@@ -48,9 +47,7 @@ public class GameEngine {
     }
 
     public boolean checkFoodCollision(Snake snake, Food food) {
-        Point head = snake.getHead();
-        Point foodPos = food.getPosition();
-        return head.equals(foodPos);
+        return snake.getHeadX() == food.getX() && snake.getHeadY() == food.getY();
     }
 
     public void addScore(int points) {
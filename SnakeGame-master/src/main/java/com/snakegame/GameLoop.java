@@ -0,0 +1,148 @@
+package com.snakegame;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-timestep game loop on its own thread. Logic ticks follow a fixed
+ * System.nanoTime schedule (the accumulator form of a fixed timestep), so the
+ * tick rate stays exact no matter how long rendering or the EDT takes: ticks
+ * that fall behind are run back to back to catch up. Between ticks the loop requests a frame once per
+ * display refresh, and renderers use {@link #interpolation()} to draw the
+ * state partway between the last two ticks.
+ */
+public class GameLoop implements Runnable {
+    // After a stall longer than this (a debugger pause, a sleeping laptop),
+    // drop the missed ticks instead of replaying them all at once
+    private static final long MAX_CATCH_UP_NANOS = 1_000_000_000L;
+
+    private final long stepNanos;
+    private final long frameNanos;
+    private final Runnable tick;
+    private final Runnable render;
+
+    // The thread that owns the loop; an earlier thread still winding down
+    // after stop() sees it is no longer the owner and exits
+    private volatile Thread thread;
+    private volatile long lastTickNanos;
+
+    // Tick timing, written by the loop thread and read under the same lock
+    private final Object statsLock = new Object();
+    private long tickCount;
+    private double intervalMicrosSum;
+    private double intervalMicrosSquareSum;
+    private long maxInterval;
+    private long maxLateness;
+
+    /**
+     * @param stepNanos time between logic ticks
+     * @param framesPerSecond render rate, normally the display refresh rate
+     * @param tick runs one logic step on the loop thread
+     * @param render requests a frame; called from the loop thread
+     */
+    public GameLoop(long stepNanos, int framesPerSecond, Runnable tick, Runnable render) {
+        this.stepNanos = stepNanos;
+        this.frameNanos = 1_000_000_000L / framesPerSecond;
+        this.tick = tick;
+        this.render = render;
+    }
+
+    public synchronized void start() {
+        if (thread != null) return;
+
+        Thread loop = new Thread(this, "game-loop");
+        loop.setDaemon(true);
+        thread = loop;
+        loop.start();
+    }
+
+    /**
+     * Stops the loop and waits for its thread to finish the tick or frame it
+     * is in, so no tick or render runs after this returns.
+     */
+    public synchronized void stop() {
+        Thread loop = thread;
+        if (loop == null) return;
+
+        thread = null;
+        loop.interrupt();
+        if (loop == Thread.currentThread()) return;
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        Thread self = Thread.currentThread();
+        long nextTick = System.nanoTime() + stepNanos;
+        long previousTick = 0;
+        lastTickNanos = System.nanoTime();
+
+        while (thread == self) {
+            long now = System.nanoTime();
+
+            if (now - nextTick > MAX_CATCH_UP_NANOS) {
+                nextTick = now;
+            }
+
+            while (thread == self && now - nextTick >= 0) {
+                tick.run();
+                long tickTime = System.nanoTime();
+                recordTick(tickTime - nextTick, previousTick == 0 ? stepNanos : tickTime - previousTick);
+                previousTick = tickTime;
+                lastTickNanos = nextTick;
+                nextTick += stepNanos;
+                now = System.nanoTime();
+            }
+
+            render.run();
+
+            long frameEnd = now + frameNanos;
+            long wake = nextTick - frameEnd < 0 ? nextTick : frameEnd;
+            long wait = wake - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+    }
+
+    /**
+     * @return how far the current moment is between the last tick and the
+     *         next one, from 0 to 1
+     */
+    public double interpolation() {
+        double alpha = (double) (System.nanoTime() - lastTickNanos) / stepNanos;
+        return alpha < 0 ? 0 : Math.min(alpha, 1);
+    }
+
+    private void recordTick(long lateness, long interval) {
+        synchronized (statsLock) {
+            tickCount++;
+            double micros = interval / 1000.0;
+            intervalMicrosSum += micros;
+            intervalMicrosSquareSum += micros * micros;
+            maxInterval = Math.max(maxInterval, interval);
+            maxLateness = Math.max(maxLateness, lateness);
+        }
+    }
+
+    /**
+     * @return tick count, mean interval, interval standard deviation (jitter),
+     *         worst interval and worst lateness against the ideal schedule
+     */
+    public String getTickStats() {
+        synchronized (statsLock) {
+            if (tickCount == 0) {
+                return "no ticks yet";
+            }
+            double meanMicros = intervalMicrosSum / tickCount;
+            double meanSquareMicros = intervalMicrosSquareSum / tickCount;
+            double jitterMicros = Math.sqrt(Math.max(0, meanSquareMicros - meanMicros * meanMicros));
+            return String.format("%d ticks, interval %.2f ms (target %.2f), jitter %.3f ms, max %.2f ms, max late %.2f ms",
+                    tickCount, meanMicros / 1000, stepNanos / 1e6, jitterMicros / 1000,
+                    maxInterval / 1e6, maxLateness / 1e6);
+        }
+    }
+}
@@ -5,13 +5,39 @@ import com.snakegame.firebase.FirestoreService;
 import com.snakegame.models.Difficulty;
 import com.snakegame.models.Score;
 import com.snakegame.models.User;
+import com.snakegame.sim.GameSimulation;
+import com.snakegame.sim.Replay;
+import com.snakegame.sim.ReplayFileWriter;
+import com.snakegame.sim.ReplayRecorder;
+import com.snakegame.sim.ScoreVerifier;
+import com.snakegame.sim.SnakeBody;
+import com.snakegame.ui.AnimationScheduler;
 import com.snakegame.ui.QuestionDialog;
+import com.snakegame.ui.TextCache;
+import com.snakegame.ui.Theme;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class GamePanel extends JPanel {
     private static final String CONFIG_PATH = "config.json";
@@ -27,12 +53,24 @@ public class GamePanel extends JPanel {
     private final Color gridColor;
     
     // Modern UI Colors
-    private final Color DARK_BG = new Color(15, 15, 25);
-    private final Color CARD_BG = new Color(25, 25, 40);
-    private final Color ACCENT_GREEN = new Color(0, 255, 150);
-    private final Color ACCENT_BLUE = new Color(100, 150, 255);
-    private final Color TEXT_PRIMARY = new Color(240, 240, 255);
-    private final Color TEXT_SECONDARY = new Color(150, 150, 170);
+    private final Color DARK_BG = Theme.DARK_BG;
+    private final Color CARD_BG = Theme.CARD_BG;
+    private final Color ACCENT_GREEN = Theme.ACCENT_GREEN;
+    private final Color ACCENT_BLUE = Theme.ACCENT_BLUE;
+    private final Color TEXT_PRIMARY = Theme.TEXT_PRIMARY;
+    private final Color TEXT_SECONDARY = Theme.TEXT_SECONDARY;
+    
+    // Paint-time resources; the multiplier string is rebuilt only when the
+    // score changes, and all text is drawn from pre-rendered images
+    private static final String[] COUNTDOWN_TEXT = {"0", "1", "2", "3"};
+    private final Theme.Gradient pauseCardGradient = new Theme.Gradient(new Color(30, 30, 50), new Color(40, 40, 60));
+    private final Theme.Gradient gameOverCardGradient = new Theme.Gradient(new Color(35, 25, 40), new Color(25, 15, 30));
+    private final Theme.Gradient countdownCardGradient = new Theme.Gradient(new Color(30, 30, 50), new Color(40, 40, 65));
+    private final String playerLabel;
+    private final String difficultyLabel;
+    private int textScore = -1;
+    private String multiplierText;
+    private final TextCache textCache = new TextCache(64);
     
     // Firebase fields
     private final User currentUser;
@@ -40,37 +78,114 @@ public class GamePanel extends JPanel {
     private final FirestoreService firestoreService;
     private boolean scoreSaved = false;
     
-    private Snake snake;
-    private Food food;
-    private GameEngine gameEngine;
-    private Timer timer;
-    private boolean paused = false;
-    private boolean running = true;
+    // The loop thread steps the game and the EDT paints it; both hold gameLock
+    private final Object gameLock = new Object();
+    private GameSimulation game;
+    private GameLoop gameLoop;
+    
+    // Every game is recorded: its seed plus the turns and bonuses applied,
+    // enough to replay it exactly. Written to under gameLock, and archived
+    // to REPLAY_ARCHIVE when the game ends.
+    private static final String REPLAY_ARCHIVE = "replays.bin";
+    // Replays and latency rows are appended on one background thread, off
+    // the EDT. The archive stays open for the whole process, so only the
+    // first game pays for checking its tail; it is touched on that thread only.
+    private static final ExecutorService ARCHIVE_WRITER = startArchiveWriter();
+    private static ReplayFileWriter replayArchive;
+    private final ReplayRecorder replayRecorder = new ReplayRecorder();
+    private Replay lastReplay;
+    
+    // Turns from the key listener, applied at most one per tick. The loop
+    // thread consumes them under gameLock; the EDT also clears them under
+    // gameLock when a new game starts.
+    private static final int INPUT_CAPACITY = 8;
+    private final InputRing inputs = new InputRing(INPUT_CAPACITY);
+    private final AtomicLong inputsDropped = new AtomicLong();
+    
+    // Input-to-photon latency: key press to the tick that applies the turn,
+    // that tick to the end of the first frame drawn after it, and end to end.
+    // The loop thread hands the timestamps of the latest applied turn to
+    // whichever thread presents the next frame.
+    private final LatencyHistogram keyToTick = new LatencyHistogram("key_to_tick");
+    private final LatencyHistogram tickToFrame = new LatencyHistogram("tick_to_frame");
+    private final LatencyHistogram keyToFrame = new LatencyHistogram("key_to_frame");
+    private volatile long unshownKeyNanos;
+    private volatile long unshownTickNanos;
+    private long latencyLabelCount = -1;
+    private String latencyLabel;
+    private static final String LATENCY_CSV = "latency.csv";
+    private volatile boolean paused = false;
+    private volatile boolean running = true;
+    // Set from the special food tick until the question is answered. SPACE
+    // cannot resume meanwhile: the bonus has to be recorded on the tick the
+    // food was eaten, or the replay fails verification.
+    private volatile boolean questionPending = false;
+    
+    // Rendering: "swing" repaints through the EDT, "active" draws from the
+    // loop thread straight into a Canvas back buffer
+    private final boolean activeRendering;
+    private final boolean showFps;
+    private final FrameCounter frameCounter = new FrameCounter();
+    private Canvas canvas;
+    private BufferStrategy bufferStrategy;
+    // Active path: a still screen (paused, question pending, game over) is
+    // drawn once and then left alone, redrawn only when the canvas is
+    // resized or shown again, and once a second in case another window
+    // covered it. Loop thread only, apart from the flag the listener sets.
+    private static final long STILL_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private volatile boolean activeRedraw = true;
+    private boolean stillFrameShown;
+    private long stillFrameShownAt;
+    
+    // Swing path: each frame repaints only what can have changed since the
+    // last one. Collected on the loop thread and painted on the EDT, under gameLock.
+    private static final int MAX_DAMAGE_REGIONS = 32;
+    private static final int SEGMENT_MARGIN = 3; // head glow reaches 2px outside its cell
+    private static final int FOOD_MARGIN = 6;    // food glow reaches 5px outside its cell
+    private DamageTracker damage;
+    private final AtomicBoolean frameQueued = new AtomicBoolean();
+    private boolean fullFrame = true;
+    private boolean overlayShown;
+    private int lastTailColumn;
+    private int lastTailRow;
+    private int lastFoodColumn;
+    private int lastFoodRow;
+    private int lastSpecialFoodColumn = -1;
+    private int lastSpecialFoodRow;
+    private int lastScore;
     
     // Animation
-    private float pulseAnimation = 0f;
-    private Timer animationTimer;
+    private final Random particleRandom = new Random();
+    
+    // Snake and food tiles, rendered once for GRID_SIZE
+    private SpriteAtlas sprites;
+    
+    // Background and dot pattern, with and without the grid on top; only
+    // touched by whichever thread renders
+    private BufferedImage backgroundLayer;
+    private BufferedImage boardLayer;
+    private GraphicsConfiguration layerConfiguration;
     
     // Special food variables
-    private boolean specialFoodActive = false;
-    private int specialFoodX;
-    private int specialFoodY;
-    private final Color SPECIAL_FOOD_COLOR = new Color(255, 215, 0); // Gold color
     private BananaAPIService bananaAPI;
     private int specialFoodChance = 80; // 80% chance to spawn special food
+    private static final int QUESTION_BONUS = 10;
+    
+    // Scores are re-simulated from their replay before upload, not trusted
+    private static final long MAX_VERIFIED_TICKS = 10_000_000;
+    private ScoreVerifier scoreVerifier;
     
     // Grid dimensions
     private int GRID_WIDTH;
     private int GRID_HEIGHT;
     private int CELL_SIZE;
-    
-    // Current score
-    private int score = 0;
 
     // Countdown fields
-    private boolean countdownActive = false;
+    private volatile boolean countdownActive = false;
     private int countdownValue = 3;
-    private Timer countdownTimer;
+    private int countdownPulses;
+    private AnimationScheduler.Registration countdown;
+    private static final int PULSES_PER_COUNT = 1000 / AnimationScheduler.PERIOD_MILLIS;
 
     public GamePanel(User currentUser, Difficulty difficulty, FirestoreService firestoreService) {
         this.currentUser = currentUser;
@@ -84,8 +199,10 @@ public class GamePanel extends JPanel {
         int height = 650;
         Color bgColor = DARK_BG;
         Color sColor = ACCENT_GREEN;
-        Color fColor = new Color(255, 100, 100);
-        Color gColor = new Color(30, 30, 45);
+        Color fColor = Theme.ACCENT_RED;
+        Color gColor = Theme.PANEL_BG;
+        String renderMode = "swing";
+        boolean fps = false;
         
         try {
             ConfigLoader config = new ConfigLoader(CONFIG_PATH);
@@ -97,8 +214,10 @@ public class GamePanel extends JPanel {
             
             bgColor = DARK_BG;
             sColor = ACCENT_GREEN;
-            fColor = new Color(255, 100, 100);
-            gColor = new Color(30, 30, 45);
+            fColor = Theme.ACCENT_RED;
+            gColor = Theme.PANEL_BG;
+            renderMode = config.getRenderMode();
+            fps = config.isShowFps();
             
             System.out.println("✓ Modern UI loaded");
         } catch (Exception e) {
@@ -112,11 +231,17 @@ public class GamePanel extends JPanel {
         this.HEIGHT = height;
         this.GRID_WIDTH = width / gridSize;
         this.GRID_HEIGHT = height / gridSize;
+        this.scoreVerifier = new ScoreVerifier(GRID_WIDTH, GRID_HEIGHT,
+                specialFoodChance, QUESTION_BONUS, MAX_VERIFIED_TICKS);
         this.backgroundColor = bgColor;
         this.snakeColor = sColor;
         this.foodColor = fColor;
         this.gridColor = gColor;
+        this.activeRendering = "active".equalsIgnoreCase(renderMode);
+        this.showFps = fps;
         
+        this.playerLabel = "👤 " + currentUser.getUsername();
+        this.difficultyLabel = difficulty.getDisplayName().toUpperCase() + " × " + difficulty.getScoreMultiplier();
         this.bananaAPI = new BananaAPIService();
         
         initializePanel();
@@ -130,41 +255,415 @@ public class GamePanel extends JPanel {
 
         initGame();
         
-        addKeyListener(new KeyAdapter() {
+        KeyAdapter keys = new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
                 handleKeyPress(e);
             }
-        });
-
-        timer = new Timer(DELAY, e -> {
-            if (!paused && running && !countdownActive) {
-                gameEngine.update(snake, food);
-                checkCollisions();
-                repaint();
+        };
+        addKeyListener(keys);
+        
+        sprites = new SpriteAtlas(GRID_SIZE, ACCENT_GREEN, DARK_BG, getGraphicsConfiguration());
+        
+        if (activeRendering) {
+            // The canvas covers the whole panel and takes focus from it
+            canvas = new Canvas();
+            canvas.setIgnoreRepaint(true);
+            canvas.setPreferredSize(new Dimension(WIDTH, HEIGHT));
+            canvas.setFocusable(true);
+            canvas.addKeyListener(keys);
+            canvas.addComponentListener(new ComponentAdapter() {
+                @Override
+                public void componentResized(ComponentEvent e) {
+                    activeRedraw = true;
+                }
                 
-                if (gameEngine.isGameOver() && !scoreSaved) {
-                    running = false;
-                    saveScore();
+                @Override
+                public void componentShown(ComponentEvent e) {
+                    activeRedraw = true;
                 }
+            });
+            setLayout(new BorderLayout());
+            add(canvas, BorderLayout.CENTER);
+        }
+
+        // Logic runs at the difficulty's fixed rate; frames at the display's
+        gameLoop = new GameLoop(TimeUnit.MILLISECONDS.toNanos(DELAY), displayRefreshRate(),
+                this::tick, activeRendering ? this::renderActive : this::requestFrame);
+        damage = new DamageTracker(WIDTH, HEIGHT, MAX_DAMAGE_REGIONS);
+    }
+    
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (activeRendering) {
+            // Needs a peer, so it can only be created once the canvas is displayable
+            canvas.createBufferStrategy(2);
+            bufferStrategy = canvas.getBufferStrategy();
+            canvas.requestFocusInWindow();
+        }
+        gameLoop.start();
+    }
+    
+    @Override
+    public void removeNotify() {
+        gameLoop.stop();
+        if (countdown != null) {
+            countdown.cancel();
+            countdown = null;
+        }
+        bufferStrategy = null;
+        super.removeNotify();
+    }
+    
+    /**
+     * Draws one frame on the game loop thread, bypassing the EDT and the
+     * repaint manager. The back buffer can be lost (for example when the
+     * display mode changes), in which case the frame is drawn again.
+     */
+    private void renderActive() {
+        BufferStrategy strategy = bufferStrategy;
+        if (strategy == null) return;
+        if (isIconified()) {
+            activeRedraw = true;
+            return;
+        }
+        
+        boolean still = (paused || !running) && !countdownActive && !showFps;
+        long now = System.nanoTime();
+        if (still && stillFrameShown && !activeRedraw && now - stillFrameShownAt < STILL_REFRESH_NANOS) {
+            return;
+        }
+        activeRedraw = false;
+        
+        do {
+            do {
+                long start = System.nanoTime();
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    synchronized (gameLock) {
+                        paintGame(g);
+                    }
+                    if (showFps) {
+                        frameCounter.frameRendered(start, (long) WIDTH * HEIGHT);
+                        drawFps(g);
+                    }
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            
+            strategy.show();
+        } while (strategy.contentsLost());
+        
+        // Flush the frame to the screen now rather than whenever the
+        // window system gets to it
+        Toolkit.getDefaultToolkit().sync();
+        framePresented();
+        stillFrameShown = still;
+        stillFrameShownAt = now;
+    }
+    
+    private boolean isIconified() {
+        Window window = SwingUtilities.getWindowAncestor(this);
+        return window instanceof Frame && (((Frame) window).getExtendedState() & Frame.ICONIFIED) != 0;
+    }
+    
+    /**
+     * Records what this frame has to repaint and queues one paint on the EDT;
+     * called from the loop thread. Damage keeps accumulating while a paint is
+     * still queued, so a busy EDT just paints a larger area less often.
+     */
+    private void requestFrame() {
+        synchronized (gameLock) {
+            collectDamage();
+        }
+        if (frameQueued.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::paintDamage);
+        }
+    }
+    
+    private void collectDamage() {
+        // Overlays cover the board, so repaint it all once when one comes up
+        // and once when it goes. While it is up the board underneath holds
+        // still; only the countdown card animates, and the FPS counter ticks.
+        boolean overlay = paused || countdownActive || !running;
+        if (overlay != overlayShown || fullFrame) {
+            damage.markAll();
+            overlayShown = overlay;
+            fullFrame = false;
+        } else if (overlay) {
+            if (countdownActive) {
+                // Card, its shadow and its 4px border
+                damage.add((WIDTH - 300) / 2 - 2, (HEIGHT - 300) / 2 - 2, 310, 310);
             }
-        });
-        timer.start();
+            if (showFps) {
+                damage.add(WIDTH - 260, 0, 260, 48);
+            }
+            return;
+        }
         
-        // Animation timer for smooth effects
-        animationTimer = new Timer(50, e -> {
-            pulseAnimation += 0.1f;
-            if (pulseAnimation > Math.PI * 2) {
-                pulseAnimation = 0f;
+        SnakeBody body = game.getSnake();
+        int last = body.size() - 1;
+        
+        if (!damage.isFull()) {
+            // Each segment slides from the cell behind it to its own cell over
+            // a tick, so those two cells cover where it was last frame and
+            // where it is now. The one cell nobody covers is the tail the
+            // snake just left.
+            for (int i = 0; i <= last; i++) {
+                int previous = Math.min(i + 1, last);
+                damageCells(body.columnAt(i), body.rowAt(i),
+                        body.columnAt(previous), body.rowAt(previous), SEGMENT_MARGIN);
+            }
+            damageCells(lastTailColumn, lastTailRow, lastTailColumn, lastTailRow, SEGMENT_MARGIN);
+            
+            // Food pulses every frame, and may have moved
+            damageCells(lastFoodColumn, lastFoodRow, lastFoodColumn, lastFoodRow, FOOD_MARGIN);
+            damageCells(game.getFoodColumn(), game.getFoodRow(),
+                    game.getFoodColumn(), game.getFoodRow(), FOOD_MARGIN);
+            if (lastSpecialFoodColumn >= 0) {
+                damageCells(lastSpecialFoodColumn, lastSpecialFoodRow,
+                        lastSpecialFoodColumn, lastSpecialFoodRow, sprites.getMargin());
+            }
+            if (game.hasSpecialFood()) {
+                damageCells(game.getSpecialFoodColumn(), game.getSpecialFoodRow(),
+                        game.getSpecialFoodColumn(), game.getSpecialFoodRow(), sprites.getMargin());
+            }
+            
+            // HUD card, including its 2px border
+            if (game.getScore() != lastScore) {
+                damage.add(13, 13, 284, 124);
+            }
+            if (showFps) {
+                damage.add(WIDTH - 260, 0, 260, 48);
+            }
+        }
+        
+        lastTailColumn = body.columnAt(last);
+        lastTailRow = body.rowAt(last);
+        lastFoodColumn = game.getFoodColumn();
+        lastFoodRow = game.getFoodRow();
+        lastSpecialFoodColumn = game.hasSpecialFood() ? game.getSpecialFoodColumn() : -1;
+        lastSpecialFoodRow = game.getSpecialFoodRow();
+        lastScore = game.getScore();
+    }
+    
+    private void damageCells(int column1, int row1, int column2, int row2, int margin) {
+        int x = Math.min(column1, column2) * GRID_SIZE - margin;
+        int y = Math.min(row1, row2) * GRID_SIZE - margin;
+        int width = (Math.abs(column1 - column2) + 1) * GRID_SIZE + 2 * margin;
+        int height = (Math.abs(row1 - row2) + 1) * GRID_SIZE + 2 * margin;
+        damage.add(x, y, width, height);
+    }
+    
+    /**
+     * Paints the damaged regions one by one; Swing would otherwise merge
+     * separate repaint(x, y, w, h) calls into their bounding box, which for
+     * a snake spread over the board is most of the panel.
+     */
+    private void paintDamage() {
+        frameQueued.set(false);
+        long start = System.nanoTime();
+        long pixels;
+        
+        synchronized (gameLock) {
+            pixels = damage.area();
+            if (damage.isFull()) {
+                paintImmediately(0, 0, getWidth(), getHeight());
+            } else {
+                for (int i = 0; i < damage.size(); i++) {
+                    paintImmediately(damage.x(i), damage.y(i), damage.width(i), damage.height(i));
+                }
+            }
+            damage.clear();
+        }
+        framePresented();
+        
+        if (showFps) {
+            frameCounter.frameRendered(start, pixels);
+        }
+    }
+    
+    private static int displayRefreshRate() {
+        int rate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+        return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? 60 : rate;
+    }
+    
+    /**
+     * One logic step, called on the game loop thread.
+     */
+    private void tick() {
+        if (paused || !running || countdownActive) return;
+        
+        int events;
+        synchronized (gameLock) {
+            events = game.step(nextTurn());
+        }
+        
+        if ((events & GameSimulation.ATE_SPECIAL_FOOD) != 0) {
+            System.out.println("🎉 *** SPECIAL FOOD COLLECTED! ***");
+            // Stop ticking now; the question dialog has to wait for the EDT
+            questionPending = true;
+            paused = true;
+            SwingUtilities.invokeLater(this::handleSpecialFoodCollision);
+        } else if ((events & GameSimulation.ATE_FOOD) != 0) {
+            System.out.println("📊 Score: " + game.getScore() + " (+" + difficulty.getPointsPerFood() + " points)");
+        }
+        
+        if ((events & GameSimulation.GAME_OVER) != 0) {
+            running = false;
+            SwingUtilities.invokeLater(this::saveScore);
+        }
+    }
+    
+    /**
+     * Takes the first queued turn that changes direction, leaving any later
+     * ones for the following ticks. Repeats of the current direction and
+     * reversals into the body are dropped, so two quick presses make two
+     * turns on consecutive ticks rather than one lost or one fatal turn.
+     */
+    private Direction nextTurn() {
+        Direction current = game.getSnake().getDirection();
+        Direction turn;
+        while ((turn = inputs.peekDirection()) != null) {
+            long pressed = inputs.peekNanos();
+            inputs.remove();
+            if (turn != current && !turn.isOpposite(current)) {
+                long now = System.nanoTime();
+                keyToTick.record(now - pressed);
+                // Tick first: the presenting thread reads key then tick
+                unshownTickNanos = now;
+                unshownKeyNanos = pressed;
+                return turn;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Called once a frame is on its way to the screen. Completes the latency
+     * measurement of the most recent turn if this is the first frame drawn
+     * since the tick that applied it.
+     */
+    private void framePresented() {
+        long pressed = unshownKeyNanos;
+        if (pressed == 0) return;
+        long tick = unshownTickNanos;
+        unshownKeyNanos = 0;
+        
+        long now = System.nanoTime();
+        tickToFrame.record(now - tick);
+        keyToFrame.record(now - pressed);
+    }
+    
+    private String getInputStats() {
+        if (keyToFrame.getCount() == 0) {
+            return "no turns shown";
+        }
+        return String.format("%d turns, key to tick p50 %.2f ms, key to frame p50 %.2f / p99 %.2f / max %.2f ms, %d dropped",
+                keyToTick.getCount(), keyToTick.getValueAtPercentile(50) / 1e6,
+                keyToFrame.getValueAtPercentile(50) / 1e6, keyToFrame.getValueAtPercentile(99) / 1e6,
+                keyToFrame.getMax() / 1e6, inputsDropped.get());
+    }
+    
+    /**
+     * Appends one row per latency stage to {@value #LATENCY_CSV} in the
+     * working directory, writing the header if the file is new. The rows are
+     * taken here; the file is written on the archive thread.
+     */
+    private void dumpLatencyCsv() {
+        long gameEnd = System.currentTimeMillis();
+        StringBuilder rows = new StringBuilder();
+        for (LatencyHistogram histogram : new LatencyHistogram[] {keyToTick, tickToFrame, keyToFrame}) {
+            rows.append(String.format(Locale.ROOT, "%d,%s,%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f%n",
+                    gameEnd, difficulty.name(), histogram.getName(), histogram.getCount(),
+                    histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(90) / 1e3,
+                    histogram.getValueAtPercentile(99) / 1e3, histogram.getValueAtPercentile(99.9) / 1e3,
+                    histogram.getMax() / 1e3));
+        }
+        
+        ARCHIVE_WRITER.execute(() -> {
+            Path path = Paths.get(LATENCY_CSV);
+            boolean newFile = !Files.exists(path);
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+                if (newFile) {
+                    out.println("game_end_ms,difficulty,stage,count,p50_us,p90_us,p99_us,p999_us,max_us");
+                }
+                out.print(rows);
+            } catch (IOException e) {
+                System.err.println("❌ Failed to write latency CSV: " + e.getMessage());
             }
-            repaint();
         });
-        animationTimer.start();
+    }
+    
+    /**
+     * Appends the replay to {@value #REPLAY_ARCHIVE} in the working directory,
+     * on the archive thread.
+     */
+    private void archiveReplay(Replay replay) {
+        Difficulty gameDifficulty = difficulty;
+        String userId = currentUser.getUserId();
+        ARCHIVE_WRITER.execute(() -> {
+            try {
+                if (replayArchive == null) {
+                    replayArchive = new ReplayFileWriter(Paths.get(REPLAY_ARCHIVE));
+                }
+                replayArchive.append(replay, gameDifficulty, userId);
+                replayArchive.flush();
+            } catch (IOException e) {
+                System.err.println("❌ Failed to archive replay: " + e.getMessage());
+                closeReplayArchive();
+            }
+        });
+    }
+    
+    private static ExecutorService startArchiveWriter() {
+        ExecutorService writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "game-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Let the last game's files be written before the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            writer.execute(GamePanel::closeReplayArchive);
+            writer.shutdown();
+            try {
+                writer.awaitTermination(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "game-archive-drain"));
+        return writer;
+    }
+    
+    // On the archive thread only
+    private static void closeReplayArchive() {
+        if (replayArchive == null) return;
+        try {
+            replayArchive.close();
+        } catch (IOException e) {
+            System.err.println("❌ Failed to close replay archive: " + e.getMessage());
+        }
+        replayArchive = null;
     }
     
     private void saveScore() {
+        if (scoreSaved) return;
         scoreSaved = true;
-        int baseScore = gameEngine.getScore();
+        System.out.println("⏱️ " + gameLoop.getTickStats());
+        System.out.println("⌨️ " + getInputStats());
+        dumpLatencyCsv();
+        synchronized (gameLock) {
+            lastReplay = replayRecorder.finish(game);
+        }
+        Replay replay = lastReplay;
+        System.out.println("🎬 Replay: seed " + replay.getSeed() + ", " + replay.getEventCount()
+                + " events in " + replay.getEvents().length + " bytes");
+        archiveReplay(replay);
+        int baseScore = game.getScore();
         int finalScore = difficulty.calculateScore(baseScore);
         
         Score scoreObj = new Score();
@@ -174,40 +673,53 @@ public class GamePanel extends JPanel {
         scoreObj.setScore(finalScore);
         scoreObj.setDifficulty(difficulty);
         
-        new SwingWorker<Void, Void>() {
+        new SwingWorker<ScoreVerifier.Verdict, Void>() {
             @Override
-            protected Void doInBackground() throws Exception {
-                if (firestoreService != null) {
-                    firestoreService.saveScore(scoreObj);
+            protected ScoreVerifier.Verdict doInBackground() throws Exception {
+                ScoreVerifier.Verdict verdict = scoreVerifier.verify(replay, difficulty, finalScore);
+                if (verdict == ScoreVerifier.Verdict.ACCEPTED && firestoreService != null) {
+                    firestoreService.saveScore(scoreObj, replay);
                 }
-                return null;
+                return verdict;
             }
             
             @Override
             protected void done() {
-                System.out.println("✅ Score saved: " + finalScore);
+                try {
+                    ScoreVerifier.Verdict verdict = get();
+                    if (verdict == ScoreVerifier.Verdict.ACCEPTED) {
+                        System.out.println("✅ Score queued: " + finalScore);
+                        if (firestoreService != null) {
+                            System.out.println("📤 " + firestoreService.getScoreQueueStats());
+                        }
+                    } else {
+                        System.err.println("❌ Score rejected by replay check: " + verdict);
+                    }
+                } catch (Exception e) {
+                    System.err.println("❌ Failed to save score: " + e.getMessage());
+                }
             }
         }.execute();
     }
 
     private void initGame() {
-        int centerX = (WIDTH / GRID_SIZE) / 2 * GRID_SIZE;
-        int centerY = (HEIGHT / GRID_SIZE) / 2 * GRID_SIZE;
-        snake = new Snake(centerX, centerY, GRID_SIZE);
-        food = new Food(WIDTH, HEIGHT, GRID_SIZE);
-        gameEngine = new GameEngine(WIDTH, HEIGHT, GRID_SIZE);
+        synchronized (gameLock) {
+            game = new GameSimulation(GRID_WIDTH, GRID_HEIGHT,
+                    difficulty.getPointsPerFood(), specialFoodChance, System.nanoTime());
+            game.setRecorder(replayRecorder);
+            fullFrame = true;
+            inputs.clear();
+        }
         paused = false;
         running = true;
         scoreSaved = false;
-        score = 0;
-        specialFoodActive = false;
-        spawnFood();
     }
 
     private void handleKeyPress(KeyEvent e) {
         int key = e.getKeyCode();
         
         if (key == KeyEvent.VK_SPACE) {
+            if (questionPending) return;
             if (paused) {
                 // Start countdown when unpausing
                 startCountdown();
@@ -218,167 +730,70 @@ public class GamePanel extends JPanel {
             return;
         }
         
-        if (key == KeyEvent.VK_R && gameEngine.isGameOver()) {
+        if (key == KeyEvent.VK_R && game.isGameOver()) {
             initGame();
-            timer.restart();
             return;
         }
 
+        // Queued for the loop thread, which checks each turn against the
+        // direction at the tick it is applied
         if (!paused && running && !countdownActive) {
-            Direction currentDir = snake.getDirection();
+            Direction turn = null;
             switch (key) {
                 case KeyEvent.VK_UP:
                 case KeyEvent.VK_W:
-                    if (currentDir != Direction.DOWN) {
-                        snake.setDirection(Direction.UP);
-                    }
+                    turn = Direction.UP;
                     break;
                 case KeyEvent.VK_DOWN:
                 case KeyEvent.VK_S:
-                    if (currentDir != Direction.UP) {
-                        snake.setDirection(Direction.DOWN);
-                    }
+                    turn = Direction.DOWN;
                     break;
                 case KeyEvent.VK_LEFT:
                 case KeyEvent.VK_A:
-                    if (currentDir != Direction.RIGHT) {
-                        snake.setDirection(Direction.LEFT);
-                    }
+                    turn = Direction.LEFT;
                     break;
                 case KeyEvent.VK_RIGHT:
                 case KeyEvent.VK_D:
-                    if (currentDir != Direction.LEFT) {
-                        snake.setDirection(Direction.RIGHT);
-                    }
-                    break;
-            }
-        }
-    }
-
-    private void spawnFood() {
-        Random rand = new Random();
-        
-        // Only spawn normal food if special food is already active
-        if (specialFoodActive) {
-            System.out.println("🍎 Special food already active, spawning normal food");
-            food.spawn();
-            return;
-        }
-        
-        // Decide if this should be special food (80% chance)
-        int roll = rand.nextInt(100);
-        System.out.println("🎲 Food spawn roll: " + roll + " (threshold: " + specialFoodChance + ")");
-        
-        if (roll < specialFoodChance) {
-            System.out.println("✅ Rolling for special food... SUCCESS!");
-            spawnSpecialFood();
-        } else {
-            System.out.println("🍎 Rolling for special food... FAILED, spawning normal food");
-            food.spawn();
-        }
-    }
-
-    private void spawnSpecialFood() {
-        Random rand = new Random();
-        boolean validPosition = false;
-        int attempts = 0;
-        int maxAttempts = 100;
-        
-        while (!validPosition && attempts < maxAttempts) {
-            attempts++;
-            specialFoodX = rand.nextInt(GRID_WIDTH);
-            specialFoodY = rand.nextInt(GRID_HEIGHT);
-            
-            validPosition = true;
-            
-            // Check against snake body
-            for (Point segment : snake.getBody()) {
-                if (segment.x / GRID_SIZE == specialFoodX && segment.y / GRID_SIZE == specialFoodY) {
-                    validPosition = false;
+                    turn = Direction.RIGHT;
                     break;
-                }
             }
-            
-            // Also check it doesn't overlap with normal food
-            if (validPosition) {
-                Point foodPos = food.getPosition();
-                if (foodPos.x / GRID_SIZE == specialFoodX && foodPos.y / GRID_SIZE == specialFoodY) {
-                    validPosition = false;
-                }
+            if (turn != null && !inputs.offer(turn, pressedNanos(e))) {
+                inputsDropped.incrementAndGet();
             }
         }
-        
-        if (validPosition) {
-            specialFoodActive = true;
-            System.out.println("🍌 *** SPECIAL FOOD SPAWNED at (" + specialFoodX + ", " + specialFoodY + ") after " + attempts + " attempts ***");
-            System.out.println("🍌 Special food will remain until collected!");
-        } else {
-            System.err.println("⚠️ Failed to spawn special food after " + maxAttempts + " attempts, spawning normal food instead");
-            specialFoodActive = false;
-            food.spawn();
-        }
     }
-
-    private void checkCollisions() {
-        java.util.List<Point> body = snake.getBody();
-        if (body.isEmpty()) return;
-        
-        Point head = body.get(0);
-        int headGridX = head.x / GRID_SIZE;
-        int headGridY = head.y / GRID_SIZE;
-        
-        // Check special food collision first (priority)
-        if (specialFoodActive && headGridX == specialFoodX && headGridY == specialFoodY) {
-            System.out.println("🎉 *** SPECIAL FOOD COLLECTED! ***");
-            handleSpecialFoodCollision();
-            return; // Don't check normal food
-        }
-        
-        // Normal food collision
-        Point foodPos = food.getPosition();
-        int foodGridX = foodPos.x / GRID_SIZE;
-        int foodGridY = foodPos.y / GRID_SIZE;
-        
-        if (headGridX == foodGridX && headGridY == foodGridY) {
-            System.out.println("🍎 Normal food collected");
-            
-            // Get points per food from difficulty
-            int points = 10; // Default
-            switch (difficulty) {
-                case EASY:
-                    points = 10;
-                    break;
-                case MEDIUM:
-                    points = 15;
-                    break;
-                case HARD:
-                    points = 20;
-                    break;
-            }
-            
-            score += points;
-            gameEngine.addScore(points);
-            snake.grow();
-            
-            // IMPORTANT: Spawn new food after eating
-            spawnFood();
-            System.out.println("📊 Score: " + score + " (+" + points + " points)");
-        }
+    
+    /**
+     * When the key went down on the nanoTime clock, counting the time the
+     * event spent in the queue before reaching the listener.
+     */
+    private static long pressedNanos(KeyEvent e) {
+        long queuedMillis = Math.max(0, System.currentTimeMillis() - e.getWhen());
+        return System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(queuedMillis);
     }
 
     private void startCountdown() {
+        if (countdown != null) {
+            countdown.cancel();
+        }
         countdownActive = true;
         countdownValue = 3;
+        countdownPulses = 0;
         paused = true; // Keep paused during countdown
         
         System.out.println("⏱️ Starting countdown...");
         
-        countdownTimer = new Timer(1000, e -> {
+        // Counts on the shared animation clock, so it holds while the window
+        // is minimized instead of resuming the game unseen
+        countdown = AnimationScheduler.shared().register(this, () -> {
+            if (++countdownPulses < PULSES_PER_COUNT) return;
+            countdownPulses = 0;
             countdownValue--;
             repaint();
             
             if (countdownValue <= 0) {
-                countdownTimer.stop();
+                countdown.cancel();
+                countdown = null;
                 countdownActive = false;
                 paused = false;
                 System.out.println("🎮 GO! Game resumed");
@@ -386,14 +801,10 @@ public class GamePanel extends JPanel {
                 System.out.println("⏱️ " + countdownValue);
             }
         });
-        
-        countdownTimer.start();
     }
 
     private void handleSpecialFoodCollision() {
-        specialFoodActive = false;
         paused = true;
-        timer.stop();
         
         System.out.println("🍌 Special food collected! Fetching question...");
         
@@ -419,9 +830,10 @@ public class GamePanel extends JPanel {
                         
                         // Check if answered correctly
                         if (dialog.isAnsweredCorrectly()) {
-                            score += 10;
-                            gameEngine.addScore(10);
-                            System.out.println("✅ Correct answer! +10 bonus points");
+                            synchronized (gameLock) {
+                                game.addBonus(QUESTION_BONUS);
+                            }
+                            System.out.println("✅ Correct answer! +" + QUESTION_BONUS + " bonus points");
                         } else {
                             System.out.println("❌ Wrong answer, no bonus");
                         }
@@ -430,15 +842,13 @@ public class GamePanel extends JPanel {
                     }
                     
                     // Start countdown before resuming
-                    timer.start();
-                    spawnFood();
+                    questionPending = false;
                     startCountdown(); // Add countdown here!
                     
                 } catch (Exception e) {
                     System.err.println("❌ Error showing question: " + e.getMessage());
                     e.printStackTrace();
-                    timer.start();
-                    spawnFood();
+                    questionPending = false;
                     startCountdown(); // Add countdown here too!
                 }
             }
@@ -450,21 +860,39 @@ public class GamePanel extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
+        synchronized (gameLock) {
+            paintGame((Graphics2D) g);
+        }
+        if (showFps) {
+            drawFps((Graphics2D) g);
+        }
+    }
+    
+    private void drawFps(Graphics2D g) {
+        g.setFont(Theme.mono(Font.PLAIN, 12));
+        String label = frameCounter.getLabel();
+        int x = WIDTH - Theme.metrics(g.getFont()).stringWidth(label) - 12;
+        g.setColor(TEXT_SECONDARY);
+        drawText(g, label, x, 24);
+        
+        String latency = latencyLabel();
+        x = WIDTH - Theme.metrics(g.getFont()).stringWidth(latency) - 12;
+        drawText(g, latency, x, 40);
+    }
+    
+    private void paintGame(Graphics2D g2d) {
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         
-        // Draw background
-        drawModernBackground(g2d);
+        // Draw background, with the grid while playing
+        updateBackgroundLayers(g2d.getDeviceConfiguration());
+        g2d.drawImage(running ? boardLayer : backgroundLayer, 0, 0, null);
         
         if (running) {
-            // Draw grid
-            drawModernGrid(g2d);
-            
             // Draw normal food
             drawModernFood(g2d);
             
             // Draw special food if active
-            if (specialFoodActive) {
+            if (game.hasSpecialFood()) {
                 drawSpecialFood(g2d);
             }
             
@@ -483,60 +911,62 @@ public class GamePanel extends JPanel {
                 drawModernPauseScreen(g2d);
             }
             
-        } else if (gameEngine.isGameOver()) {
+        } else if (game.isGameOver()) {
             drawModernGameOver(g2d);
         }
     }
     
     private void drawSpecialFood(Graphics2D g) {
         // Pulsing effect
-        float pulse = (float) (0.8 + 0.2 * Math.sin(System.currentTimeMillis() / 200.0));
-        
-        int size = (int)(CELL_SIZE * 1.2); // Slightly larger
-        int offset = (CELL_SIZE - size) / 2;
-        
-        // Glow effect (multiple layers for stronger glow)
-        for (int i = 3; i > 0; i--) {
-            g.setColor(new Color(255, 215, 0, 20 * i));
-            g.fillOval(
-                specialFoodX * CELL_SIZE + offset - (i * 5),
-                specialFoodY * CELL_SIZE + offset - (i * 5),
-                size + (i * 10), size + (i * 10)
-            );
-        }
-        
-        // Main food with pulsing
-        g.setColor(new Color(
-            (int)(SPECIAL_FOOD_COLOR.getRed() * pulse),
-            (int)(SPECIAL_FOOD_COLOR.getGreen() * pulse),
-            (int)(SPECIAL_FOOD_COLOR.getBlue() * pulse)
-        ));
-        g.fillOval(
-            specialFoodX * CELL_SIZE + offset,
-            specialFoodY * CELL_SIZE + offset,
-            size, size
-        );
-        
-        // Draw banana emoji
-        g.setColor(Color.WHITE);
-        g.setFont(new Font("Segoe UI Emoji", Font.BOLD, CELL_SIZE / 2));
-        g.drawString("🍌", 
-            specialFoodX * CELL_SIZE + CELL_SIZE / 4,
-            specialFoodY * CELL_SIZE + CELL_SIZE * 3 / 4
-        );
+        double pulse = 0.8 + 0.2 * Math.sin(System.currentTimeMillis() / 200.0);
+        sprites.drawSpecialFood(g, pulse,
+                game.getSpecialFoodColumn() * CELL_SIZE, game.getSpecialFoodRow() * CELL_SIZE);
+    }
+
+    /**
+     * Renders the static layers the first time they are needed, and again if
+     * the panel moves to a screen with a different pixel format.
+     */
+    private void updateBackgroundLayers(GraphicsConfiguration configuration) {
+        if (backgroundLayer != null && configuration.equals(layerConfiguration)) {
+            return;
+        }
+        layerConfiguration = configuration;
+        
+        backgroundLayer = configuration.createCompatibleImage(WIDTH, HEIGHT, Transparency.OPAQUE);
+        Graphics2D g = backgroundLayer.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        drawModernBackground(g);
+        g.dispose();
+        
+        boardLayer = configuration.createCompatibleImage(WIDTH, HEIGHT, Transparency.OPAQUE);
+        g = boardLayer.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.drawImage(backgroundLayer, 0, 0, null);
+        drawModernGrid(g);
+        g.dispose();
+    }
+
+    /**
+     * Key-to-frame percentiles, rebuilt only when a new turn has been shown.
+     */
+    private String latencyLabel() {
+        long count = keyToFrame.getCount();
+        if (count != latencyLabelCount) {
+            latencyLabelCount = count;
+            latencyLabel = String.format("input p50 %.1f ms  p99 %.1f ms",
+                    keyToFrame.getValueAtPercentile(50) / 1e6, keyToFrame.getValueAtPercentile(99) / 1e6);
+        }
+        return latencyLabel;
     }
 
     private void drawModernBackground(Graphics2D g) {
         // Gradient background
-        GradientPaint gradient = new GradientPaint(
-            0, 0, DARK_BG,
-            WIDTH, HEIGHT, new Color(20, 20, 35)
-        );
-        g.setPaint(gradient);
+        g.setPaint(new GradientPaint(0, 0, DARK_BG, WIDTH, HEIGHT, Theme.DARK_BG_END));
         g.fillRect(0, 0, WIDTH, HEIGHT);
         
         // Subtle pattern
-        g.setColor(new Color(255, 255, 255, 3));
+        g.setColor(Theme.alpha(Color.WHITE, 3));
         for (int i = 0; i < WIDTH; i += 100) {
             for (int j = 0; j < HEIGHT; j += 100) {
                 g.fillOval(i, j, 2, 2);
@@ -546,7 +976,7 @@ public class GamePanel extends JPanel {
 
     private void drawModernGrid(Graphics2D g) {
         g.setColor(gridColor);
-        g.setStroke(new BasicStroke(1f));
+        g.setStroke(Theme.STROKE_1);
         
         // Draw subtle grid
         for (int i = GRID_SIZE; i < WIDTH; i += GRID_SIZE) {
@@ -558,181 +988,99 @@ public class GamePanel extends JPanel {
     }
 
     private void drawModernFood(Graphics2D g) {
-        Point foodPos = food.getPosition();
-        
-        // Pulsing glow effect
-        float pulse = (float) (0.8f + 0.2f * Math.sin(pulseAnimation));
-        int glowSize = (int) (GRID_SIZE * pulse);
-        int glowOffset = (GRID_SIZE - glowSize) / 2;
-        
-        // Outer glow
-        g.setColor(new Color(255, 100, 100, 30));
-        g.fillOval(
-            foodPos.x + glowOffset - 5, 
-            foodPos.y + glowOffset - 5, 
-            glowSize + 10, 
-            glowSize + 10
-        );
-        
-        // Main food
-        GradientPaint foodGradient = new GradientPaint(
-            foodPos.x, foodPos.y, new Color(255, 120, 120),
-            foodPos.x + GRID_SIZE, foodPos.y + GRID_SIZE, new Color(255, 50, 50)
-        );
-        g.setPaint(foodGradient);
-        g.fillRoundRect(
-            foodPos.x + 2, 
-            foodPos.y + 2, 
-            GRID_SIZE - 4, 
-            GRID_SIZE - 4, 
-            GRID_SIZE / 2, 
-            GRID_SIZE / 2
-        );
-        
-        // Highlight
-        g.setColor(new Color(255, 255, 255, 100));
-        g.fillOval(
-            foodPos.x + GRID_SIZE / 3, 
-            foodPos.y + GRID_SIZE / 4, 
-            GRID_SIZE / 4, 
-            GRID_SIZE / 4
-        );
+        // Pulsing glow effect, one cycle every PI seconds
+        double pulse = 0.8 + 0.2 * Math.sin(System.nanoTime() / 1e9 * 2);
+        sprites.drawFood(g, pulse, game.getFoodColumn() * GRID_SIZE, game.getFoodRow() * GRID_SIZE);
     }
 
     private void drawModernSnake(Graphics2D g) {
-        java.util.List<Point> body = snake.getBody();
+        SnakeBody body = game.getSnake();
+        
+        // Draw each segment partway from where it was last tick (the cell of the
+        // segment behind it) to where it is now, so movement is smooth at any
+        // frame rate. Frozen at the current state while the game is halted.
+        double progress = paused || countdownActive || !running ? 1 : gameLoop.interpolation();
+        int last = body.size() - 1;
         
         for (int i = 0; i < body.size(); i++) {
-            Point segment = body.get(i);
+            int previous = Math.min(i + 1, last);
+            int segmentX = (int) Math.round((body.columnAt(previous)
+                    + (body.columnAt(i) - body.columnAt(previous)) * progress) * GRID_SIZE);
+            int segmentY = (int) Math.round((body.rowAt(previous)
+                    + (body.rowAt(i) - body.rowAt(previous)) * progress) * GRID_SIZE);
+            
+            // Most frames only repaint a few small regions
+            if (!g.hitClip(segmentX - SEGMENT_MARGIN, segmentY - SEGMENT_MARGIN,
+                    GRID_SIZE + 2 * SEGMENT_MARGIN, GRID_SIZE + 2 * SEGMENT_MARGIN)) {
+                continue;
+            }
             
             if (i == 0) {
-                // Head with gradient
-                GradientPaint headGradient = new GradientPaint(
-                    segment.x, segment.y, ACCENT_GREEN.brighter(),
-                    segment.x + GRID_SIZE, segment.y + GRID_SIZE, ACCENT_GREEN
-                );
-                g.setPaint(headGradient);
-                g.fillRoundRect(
-                    segment.x + 1, 
-                    segment.y + 1, 
-                    GRID_SIZE - 2, 
-                    GRID_SIZE - 2, 
-                    12, 
-                    12
-                );
-                
-                // Eyes
-                g.setColor(DARK_BG);
-                Direction dir = snake.getDirection();
-                int eyeOffset = GRID_SIZE / 4;
-                int eyeSize = GRID_SIZE / 5;
-                
-                if (dir == Direction.UP) {
-                    g.fillOval(segment.x + eyeOffset, segment.y + eyeOffset, eyeSize, eyeSize);
-                    g.fillOval(segment.x + GRID_SIZE - eyeOffset - eyeSize, segment.y + eyeOffset, eyeSize, eyeSize);
-                } else if (dir == Direction.DOWN) {
-                    g.fillOval(segment.x + eyeOffset, segment.y + GRID_SIZE - eyeOffset - eyeSize, eyeSize, eyeSize);
-                    g.fillOval(segment.x + GRID_SIZE - eyeOffset - eyeSize, segment.y + GRID_SIZE - eyeOffset - eyeSize, eyeSize, eyeSize);
-                } else if (dir == Direction.LEFT) {
-                    g.fillOval(segment.x + eyeOffset, segment.y + eyeOffset, eyeSize, eyeSize);
-                    g.fillOval(segment.x + eyeOffset, segment.y + GRID_SIZE - eyeOffset - eyeSize, eyeSize, eyeSize);
-                } else {
-                    g.fillOval(segment.x + GRID_SIZE - eyeOffset - eyeSize, segment.y + eyeOffset, eyeSize, eyeSize);
-                    g.fillOval(segment.x + GRID_SIZE - eyeOffset - eyeSize, segment.y + GRID_SIZE - eyeOffset - eyeSize, eyeSize, eyeSize);
-                }
-                
-                // Head glow
-                g.setColor(new Color(0, 255, 150, 20));
-                g.fillRoundRect(
-                    segment.x - 2, 
-                    segment.y - 2, 
-                    GRID_SIZE + 4, 
-                    GRID_SIZE + 4, 
-                    14, 
-                    14
-                );
+                sprites.drawHead(g, body.getDirection(), segmentX, segmentY);
             } else {
-                // Body segments with fade effect
-                float alpha = 1.0f - (i * 0.02f);
-                if (alpha < 0.5f) alpha = 0.5f;
-                
-                Color bodyColor = new Color(
-                    ACCENT_GREEN.getRed(),
-                    ACCENT_GREEN.getGreen(),
-                    ACCENT_GREEN.getBlue(),
-                    (int) (255 * alpha)
-                );
-                
-                g.setColor(bodyColor);
-                g.fillRoundRect(
-                    segment.x + 2, 
-                    segment.y + 2, 
-                    GRID_SIZE - 4, 
-                    GRID_SIZE - 4, 
-                    10, 
-                    10
-                );
-                
-                // Inner highlight
-                g.setColor(new Color(255, 255, 255, (int) (30 * alpha)));
-                g.fillRoundRect(
-                    segment.x + 4, 
-                    segment.y + 4, 
-                    GRID_SIZE - 8, 
-                    GRID_SIZE - 8, 
-                    8, 
-                    8
-                );
+                sprites.drawBody(g, i, segmentX, segmentY);
             }
         }
     }
 
     private void drawModernHUD(Graphics2D g) {
         // HUD background card
-        g.setColor(new Color(CARD_BG.getRed(), CARD_BG.getGreen(), CARD_BG.getBlue(), 200));
+        g.setColor(Theme.alpha(CARD_BG, 200));
         g.fillRoundRect(15, 15, 280, 120, 20, 20);
         
         // Border glow
-        g.setColor(new Color(ACCENT_BLUE.getRed(), ACCENT_BLUE.getGreen(), ACCENT_BLUE.getBlue(), 100));
-        g.setStroke(new BasicStroke(2f));
+        g.setColor(Theme.alpha(ACCENT_BLUE, 100));
+        g.setStroke(Theme.STROKE_2);
         g.drawRoundRect(15, 15, 280, 120, 20, 20);
         
-        int baseScore = gameEngine.getScore();
-        int displayScore = difficulty.calculateScore(baseScore);
-        
         // Player name
         g.setColor(TEXT_PRIMARY);
-        g.setFont(new Font("Segoe UI", Font.BOLD, 18));
-        g.drawString("👤 " + currentUser.getUsername(), 30, 40);
+        g.setFont(Theme.ui(Font.BOLD, 18));
+        drawText(g, playerLabel, 30, 40);
         
         // Score with icon
-        g.setFont(new Font("Segoe UI", Font.BOLD, 32));
+        g.setFont(Theme.ui(Font.BOLD, 32));
         g.setColor(ACCENT_GREEN);
-        g.drawString("" + displayScore, 30, 80);
+        textCache.drawNumber(g, difficulty.calculateScore(game.getScore()), g.getFont(), g.getColor(), 30, 80);
         
-        g.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        g.setFont(Theme.ui(Font.PLAIN, 12));
         g.setColor(TEXT_SECONDARY);
-        g.drawString("SCORE", 30, 95);
+        drawText(g, "SCORE", 30, 95);
         
         // Difficulty badge
         Color diffColor = difficulty.getColor();
-        g.setColor(new Color(diffColor.getRed(), diffColor.getGreen(), diffColor.getBlue(), 150));
+        g.setColor(Theme.alpha(diffColor, 150));
         g.fillRoundRect(30, 100, 100, 25, 12, 12);
         
         g.setColor(TEXT_PRIMARY);
-        g.setFont(new Font("Segoe UI", Font.BOLD, 11));
-        String diffText = difficulty.getDisplayName().toUpperCase() + " × " + difficulty.getScoreMultiplier();
-        g.drawString(diffText, 40, 117);
+        g.setFont(Theme.ui(Font.BOLD, 11));
+        drawText(g, difficultyLabel, 40, 117);
         
         // Controls hint (bottom right)
-        g.setColor(new Color(TEXT_SECONDARY.getRed(), TEXT_SECONDARY.getGreen(), TEXT_SECONDARY.getBlue(), 150));
-        g.setFont(new Font("Segoe UI", Font.PLAIN, 11));
-        g.drawString("SPACE: Pause  •  R: Restart  •  🍌 = +10 pts", WIDTH - 280, HEIGHT - 15);
+        g.setColor(Theme.alpha(TEXT_SECONDARY, 150));
+        g.setFont(Theme.ui(Font.PLAIN, 11));
+        drawText(g, "SPACE: Pause  •  R: Restart  •  🍌 = +10 pts", WIDTH - 280, HEIGHT - 15);
+    }
+
+    private String multiplierText(int baseScore) {
+        if (baseScore != textScore) {
+            textScore = baseScore;
+            multiplierText = "(" + baseScore + " × " + difficulty.getScoreMultiplier() + ")";
+        }
+        return multiplierText;
+    }
+    
+    /**
+     * Draws a string in the current font and color from the text cache, so
+     * it is only laid out and rasterized the first time.
+     */
+    private void drawText(Graphics2D g, String text, int x, int y) {
+        textCache.draw(g, text, g.getFont(), g.getColor(), x, y);
     }
 
     private void drawModernPauseScreen(Graphics2D g) {
         // Blur effect background
-        g.setColor(new Color(0, 0, 0, 180));
+        g.setColor(Theme.alpha(Color.BLACK, 180));
         g.fillRect(0, 0, WIDTH, HEIGHT);
         
         // Pause card
@@ -742,20 +1090,16 @@ public class GamePanel extends JPanel {
         int cardY = (HEIGHT - cardHeight) / 2;
         
         // Card shadow
-        g.setColor(new Color(0, 0, 0, 100));
+        g.setColor(Theme.alpha(Color.BLACK, 100));
         g.fillRoundRect(cardX + 5, cardY + 5, cardWidth, cardHeight, 30, 30);
         
         // Card background
-        GradientPaint cardGradient = new GradientPaint(
-            cardX, cardY, new Color(30, 30, 50),
-            cardX, cardY + cardHeight, new Color(40, 40, 60)
-        );
-        g.setPaint(cardGradient);
+        g.setPaint(pauseCardGradient.at(cardX, cardY, cardX, cardY + cardHeight));
         g.fillRoundRect(cardX, cardY, cardWidth, cardHeight, 30, 30);
         
         // Card border
         g.setColor(ACCENT_BLUE);
-        g.setStroke(new BasicStroke(3f));
+        g.setStroke(Theme.STROKE_3);
         g.drawRoundRect(cardX, cardY, cardWidth, cardHeight, 30, 30);
         
         // Pause icon
@@ -768,26 +1112,25 @@ public class GamePanel extends JPanel {
         
         // Title
         g.setColor(TEXT_PRIMARY);
-        g.setFont(new Font("Segoe UI", Font.BOLD, 42));
+        g.setFont(Theme.ui(Font.BOLD, 42));
         String pauseText = "PAUSED";
-        FontMetrics fm = g.getFontMetrics();
+        FontMetrics fm = Theme.metrics(g.getFont());
         int textX = cardX + (cardWidth - fm.stringWidth(pauseText)) / 2;
-        g.drawString(pauseText, textX, cardY + 150);
+        drawText(g, pauseText, textX, cardY + 150);
         
         // Subtitle
         g.setColor(TEXT_SECONDARY);
-        g.setFont(new Font("Segoe UI", Font.PLAIN, 16));
+        g.setFont(Theme.ui(Font.PLAIN, 16));
         String subtitle = "Press SPACE to continue";
-        textX = cardX + (cardWidth - g.getFontMetrics().stringWidth(subtitle)) / 2;
-        g.drawString(subtitle, textX, cardY + 190);
+        textX = cardX + (cardWidth - Theme.metrics(g.getFont()).stringWidth(subtitle)) / 2;
+        drawText(g, subtitle, textX, cardY + 190);
     }
 
     private void drawModernGameOver(Graphics2D g) {
-        int baseScore = gameEngine.getScore();
-        int finalScore = difficulty.calculateScore(baseScore);
+        int baseScore = game.getScore();
         
         // Dark overlay
-        g.setColor(new Color(0, 0, 0, 200));
+        g.setColor(Theme.alpha(Color.BLACK, 200));
         g.fillRect(0, 0, WIDTH, HEIGHT);
         
         // Game over card
@@ -797,79 +1140,74 @@ public class GamePanel extends JPanel {
         int cardY = (HEIGHT - cardHeight) / 2;
         
         // Card shadow
-        g.setColor(new Color(0, 0, 0, 150));
+        g.setColor(Theme.alpha(Color.BLACK, 150));
         g.fillRoundRect(cardX + 8, cardY + 8, cardWidth, cardHeight, 35, 35);
         
         // Card background
-        GradientPaint cardGradient = new GradientPaint(
-            cardX, cardY, new Color(35, 25, 40),
-            cardX, cardY + cardHeight, new Color(25, 15, 30)
-        );
-        g.setPaint(cardGradient);
+        g.setPaint(gameOverCardGradient.at(cardX, cardY, cardX, cardY + cardHeight));
         g.fillRoundRect(cardX, cardY, cardWidth, cardHeight, 35, 35);
         
         // Card border
-        g.setColor(new Color(255, 100, 100));
-        g.setStroke(new BasicStroke(4f));
+        g.setColor(Theme.ACCENT_RED);
+        g.setStroke(Theme.STROKE_4);
         g.drawRoundRect(cardX, cardY, cardWidth, cardHeight, 35, 35);
         
         // Skull icon (game over)
-        g.setColor(new Color(255, 100, 100, 150));
-        g.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 80));
+        g.setColor(Theme.alpha(Theme.ACCENT_RED, 150));
+        g.setFont(Theme.emoji(Font.PLAIN, 80));
         String icon = "💀";
-        FontMetrics fm = g.getFontMetrics();
+        FontMetrics fm = Theme.metrics(g.getFont());
         int iconX = cardX + (cardWidth - fm.stringWidth(icon)) / 2;
-        g.drawString(icon, iconX, cardY + 90);
+        drawText(g, icon, iconX, cardY + 90);
         
         // Game Over text
-        g.setColor(new Color(255, 100, 100));
-        g.setFont(new Font("Segoe UI", Font.BOLD, 52));
+        g.setColor(Theme.ACCENT_RED);
+        g.setFont(Theme.ui(Font.BOLD, 52));
         String gameOverText = "GAME OVER";
-        fm = g.getFontMetrics();
+        fm = Theme.metrics(g.getFont());
         int textX = cardX + (cardWidth - fm.stringWidth(gameOverText)) / 2;
-        g.drawString(gameOverText, textX, cardY + 160);
+        drawText(g, gameOverText, textX, cardY + 160);
         
         // Score section
         g.setColor(CARD_BG);
         g.fillRoundRect(cardX + 50, cardY + 190, cardWidth - 100, 90, 20, 20);
         
         g.setColor(ACCENT_GREEN);
-        g.setFont(new Font("Segoe UI", Font.BOLD, 48));
-        String scoreText = String.valueOf(finalScore);
-        fm = g.getFontMetrics();
-        textX = cardX + (cardWidth - fm.stringWidth(scoreText)) / 2;
-        g.drawString(scoreText, textX, cardY + 240);
+        g.setFont(Theme.ui(Font.BOLD, 48));
+        int finalScore = difficulty.calculateScore(baseScore);
+        textX = cardX + (cardWidth - TextCache.numberWidth(finalScore, g.getFont())) / 2;
+        textCache.drawNumber(g, finalScore, g.getFont(), g.getColor(), textX, cardY + 240);
         
         g.setColor(TEXT_SECONDARY);
-        g.setFont(new Font("Segoe UI", Font.PLAIN, 16));
+        g.setFont(Theme.ui(Font.PLAIN, 16));
         String scoreLabel = "FINAL SCORE";
-        textX = cardX + (cardWidth - g.getFontMetrics().stringWidth(scoreLabel)) / 2;
-        g.drawString(scoreLabel, textX, cardY + 265);
+        textX = cardX + (cardWidth - Theme.metrics(g.getFont()).stringWidth(scoreLabel)) / 2;
+        drawText(g, scoreLabel, textX, cardY + 265);
         
         // Multiplier info
-        g.setFont(new Font("Segoe UI", Font.ITALIC, 13));
-        String multiplier = "(" + baseScore + " × " + difficulty.getScoreMultiplier() + ")";
-        textX = cardX + (cardWidth - g.getFontMetrics().stringWidth(multiplier)) / 2;
-        g.drawString(multiplier, textX, cardY + 285);
+        g.setFont(Theme.ui(Font.ITALIC, 13));
+        String multiplier = multiplierText(baseScore);
+        textX = cardX + (cardWidth - Theme.metrics(g.getFont()).stringWidth(multiplier)) / 2;
+        drawText(g, multiplier, textX, cardY + 285);
         
         // Action buttons
         g.setColor(TEXT_SECONDARY);
-        g.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        g.setFont(Theme.ui(Font.PLAIN, 14));
         
         String closeText = "Close window to return";
-        textX = cardX + (cardWidth - g.getFontMetrics().stringWidth(closeText)) / 2;
-        g.drawString(closeText, textX, cardY + 330);
+        textX = cardX + (cardWidth - Theme.metrics(g.getFont()).stringWidth(closeText)) / 2;
+        drawText(g, closeText, textX, cardY + 330);
         
         g.setColor(ACCENT_BLUE);
-        g.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        g.setFont(Theme.ui(Font.BOLD, 14));
         String restartText = "Press R to play again";
-        textX = cardX + (cardWidth - g.getFontMetrics().stringWidth(restartText)) / 2;
-        g.drawString(restartText, textX, cardY + 360);
+        textX = cardX + (cardWidth - Theme.metrics(g.getFont()).stringWidth(restartText)) / 2;
+        drawText(g, restartText, textX, cardY + 360);
     }
 
     private void drawCountdown(Graphics2D g) {
         // Semi-transparent overlay
-        g.setColor(new Color(0, 0, 0, 180));
+        g.setColor(Theme.alpha(Color.BLACK, 180));
         g.fillRect(0, 0, WIDTH, HEIGHT);
         
         // Countdown card
@@ -879,25 +1217,17 @@ public class GamePanel extends JPanel {
         int cardY = (HEIGHT - cardHeight) / 2;
         
         // Card shadow
-        g.setColor(new Color(0, 0, 0, 120));
+        g.setColor(Theme.alpha(Color.BLACK, 120));
         g.fillRoundRect(cardX + 6, cardY + 6, cardWidth, cardHeight, 40, 40);
         
         // Card background with gradient
-        GradientPaint cardGradient = new GradientPaint(
-            cardX, cardY, new Color(30, 30, 50),
-            cardX, cardY + cardHeight, new Color(40, 40, 65)
-        );
-        g.setPaint(cardGradient);
+        g.setPaint(countdownCardGradient.at(cardX, cardY, cardX, cardY + cardHeight));
         g.fillRoundRect(cardX, cardY, cardWidth, cardHeight, 40, 40);
         
         // Pulsing border
         float pulse = (float) (0.7 + 0.3 * Math.sin(System.currentTimeMillis() / 200.0));
-        g.setColor(new Color(
-            (int)(ACCENT_GREEN.getRed() * pulse),
-            (int)(ACCENT_GREEN.getGreen() * pulse),
-            (int)(ACCENT_GREEN.getBlue() * pulse)
-        ));
-        g.setStroke(new BasicStroke(4f));
+        g.setColor(Theme.shade(ACCENT_GREEN, pulse));
+        g.setStroke(Theme.STROKE_4);
         g.drawRoundRect(cardX, cardY, cardWidth, cardHeight, 40, 40);
         
         // Draw countdown number or "GO!"
@@ -905,62 +1235,61 @@ public class GamePanel extends JPanel {
         
         if (countdownValue > 0) {
             // Draw number
-            g.setFont(new Font("Segoe UI", Font.BOLD, 150));
+            g.setFont(Theme.ui(Font.BOLD, 150));
             g.setColor(ACCENT_GREEN);
             
-            String countText = String.valueOf(countdownValue);
-            FontMetrics fm = g.getFontMetrics();
+            String countText = COUNTDOWN_TEXT[countdownValue];
+            FontMetrics fm = Theme.metrics(g.getFont());
             int textX = cardX + (cardWidth - fm.stringWidth(countText)) / 2;
             int textY = cardY + (cardHeight + fm.getAscent() - fm.getDescent()) / 2;
             
             // Glow effect
-            g.setColor(new Color(ACCENT_GREEN.getRed(), ACCENT_GREEN.getGreen(), ACCENT_GREEN.getBlue(), 50));
+            g.setColor(Theme.alpha(ACCENT_GREEN, 50));
             for (int i = 10; i > 0; i--) {
-                g.drawString(countText, textX - i, textY - i);
-                g.drawString(countText, textX + i, textY + i);
+                drawText(g, countText, textX - i, textY - i);
+                drawText(g, countText, textX + i, textY + i);
             }
             
             // Main number
             g.setColor(ACCENT_GREEN);
-            g.drawString(countText, textX, textY);
+            drawText(g, countText, textX, textY);
             
         } else {
             // Draw "GO!"
-            g.setFont(new Font("Segoe UI", Font.BOLD, 100));
+            g.setFont(Theme.ui(Font.BOLD, 100));
             g.setColor(ACCENT_GREEN);
             
             String goText = "GO!";
-            FontMetrics fm = g.getFontMetrics();
+            FontMetrics fm = Theme.metrics(g.getFont());
             int textX = cardX + (cardWidth - fm.stringWidth(goText)) / 2;
             int textY = cardY + (cardHeight + fm.getAscent() - fm.getDescent()) / 2;
             
             // Glow effect
-            g.setColor(new Color(ACCENT_GREEN.getRed(), ACCENT_GREEN.getGreen(), ACCENT_GREEN.getBlue(), 80));
+            g.setColor(Theme.alpha(ACCENT_GREEN, 80));
             for (int i = 15; i > 0; i--) {
-                g.drawString(goText, textX - i/2, textY - i/2);
-                g.drawString(goText, textX + i/2, textY + i/2);
+                drawText(g, goText, textX - i/2, textY - i/2);
+                drawText(g, goText, textX + i/2, textY + i/2);
             }
             
             // Main text
             g.setColor(ACCENT_GREEN);
-            g.drawString(goText, textX, textY);
+            drawText(g, goText, textX, textY);
             
             // Particles effect around "GO!"
-            Random rand = new Random();
-            g.setColor(new Color(ACCENT_GREEN.getRed(), ACCENT_GREEN.getGreen(), ACCENT_GREEN.getBlue(), 150));
+            g.setColor(Theme.alpha(ACCENT_GREEN, 150));
             for (int i = 0; i < 20; i++) {
-                int px = cardX + cardWidth/2 + rand.nextInt(200) - 100;
-                int py = cardY + cardHeight/2 + rand.nextInt(200) - 100;
+                int px = cardX + cardWidth/2 + particleRandom.nextInt(200) - 100;
+                int py = cardY + cardHeight/2 + particleRandom.nextInt(200) - 100;
                 g.fillOval(px, py, 4, 4);
             }
         }
         
         // Subtitle
-        g.setFont(new Font("Segoe UI", Font.PLAIN, 18));
+        g.setFont(Theme.ui(Font.PLAIN, 18));
         g.setColor(TEXT_SECONDARY);
         String subtitle = "Get ready...";
-        FontMetrics fm = g.getFontMetrics();
+        FontMetrics fm = Theme.metrics(g.getFont());
         int subtitleX = cardX + (cardWidth - fm.stringWidth(subtitle)) / 2;
-        g.drawString(subtitle, subtitleX, cardY + cardHeight - 40);
+        drawText(g, subtitle, subtitleX, cardY + cardHeight - 40);
     }
 }
\ No newline at end of file
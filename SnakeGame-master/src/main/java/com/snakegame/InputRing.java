@@ -0,0 +1,85 @@
+package com.snakegame;
+
+/**
+ * Bounded single-producer, single-consumer queue of turns, from the key
+ * listener on the EDT to the game loop thread. Each entry carries the
+ * System.nanoTime of the key press so the consumer can measure input latency.
+ *
+ * Lock-free: the producer only writes {@code tail} and the consumer only
+ * writes {@code head}. Each publishes its slots through that volatile
+ * write, and the other side reads it before touching them.
+ */
+public class InputRing {
+    private final Direction[] directions;
+    private final long[] pressedNanos;
+    private final int mask;
+
+    private volatile long head; // next slot to read, written by the consumer
+    private volatile long tail; // next slot to write, written by the producer
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public InputRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.directions = new Direction[size];
+        this.pressedNanos = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Producer side.
+     * @return false if the ring is full and the turn was dropped
+     */
+    public boolean offer(Direction direction, long nanos) {
+        long t = tail;
+        if (t - head == directions.length) {
+            return false;
+        }
+        int slot = (int) t & mask;
+        directions[slot] = direction;
+        pressedNanos[slot] = nanos;
+        tail = t + 1;
+        return true;
+    }
+
+    /**
+     * Consumer side: the oldest turn, or null if there is none.
+     */
+    public Direction peekDirection() {
+        long h = head;
+        return h == tail ? null : directions[(int) h & mask];
+    }
+
+    /**
+     * Consumer side: when the oldest turn was pressed. Only valid after
+     * {@link #peekDirection()} returned non-null.
+     */
+    public long peekNanos() {
+        return pressedNanos[(int) head & mask];
+    }
+
+    /**
+     * Consumer side: drops the oldest turn.
+     */
+    public void remove() {
+        long h = head;
+        if (h != tail) {
+            directions[(int) h & mask] = null;
+            head = h + 1;
+        }
+    }
+
+    /**
+     * Consumer side: drops every queued turn.
+     */
+    public void clear() {
+        while (peekDirection() != null) {
+            remove();
+        }
+    }
+
+    public int size() {
+        return (int) (tail - head);
+    }
+}
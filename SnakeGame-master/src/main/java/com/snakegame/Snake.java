@@ -1,84 +1,107 @@
 package com.snakegame;
 
+import com.snakegame.sim.FreeCells;
+import com.snakegame.sim.SnakeBody;
+
 import java.awt.*;
 import java.util.*;
 
+/**
+ * Pixel-coordinate view over a {@link SnakeBody}, for code that works in
+ * {@link Point}s rather than grid cells.
+ */
 public class Snake {
-    private java.util.List<Point> body;
+    private final SnakeBody body;
     private int gridSize;
-    private Direction direction;
 
-    public Snake(int startX, int startY, int gridSize) {
-        body = new ArrayList<>();
+    public Snake(int startX, int startY, int gridSize, int width, int height) {
+        this.body = new SnakeBody(width / gridSize, height / gridSize,
+                startX / gridSize, startY / gridSize);
         this.gridSize = gridSize;
-        this.direction = Direction.RIGHT;
-
-        // Initialize snake with 3 segments
-        body.add(new Point(startX, startY));
-        body.add(new Point(startX - gridSize, startY));
-        body.add(new Point(startX - 2 * gridSize, startY));
     }
 
     public void move() {
-        Point head = body.get(0);
-        Point newHead = new Point(
-                head.x + direction.dx * gridSize,
-                head.y + direction.dy * gridSize
-        );
-
-        body.add(0, newHead);
-        body.remove(body.size() - 1); // Remove tail
+        body.move();
     }
 
     public void grow() {
-        Point tail = body.get(body.size() - 1);
-        body.add(new Point(tail.x, tail.y));
+        body.grow();
     }
 
     public Point getHead() {
-        return body.get(0);
+        return new Point(getHeadX(), getHeadY());
     }
 
+    /**
+     * Copies the body into a new list. Per-tick code should read segments
+     * through {@link #getSegmentX(int)} and {@link #getSegmentY(int)} instead.
+     */
     public java.util.List<Point> getBody() {
-        return new ArrayList<>(body);
+        java.util.List<Point> points = new ArrayList<>(body.size());
+        for (int i = 0; i < body.size(); i++) {
+            points.add(new Point(body.columnAt(i) * gridSize, body.rowAt(i) * gridSize));
+        }
+        return points;
+    }
+
+    public int size() {
+        return body.size();
+    }
+
+    public int getHeadX() {
+        return body.headColumn() * gridSize;
+    }
+
+    public int getHeadY() {
+        return body.headRow() * gridSize;
+    }
+
+    public int getSegmentX(int index) {
+        return body.columnAt(index) * gridSize;
+    }
+
+    public int getSegmentY(int index) {
+        return body.rowAt(index) * gridSize;
     }
 
     public boolean checkSelfCollision() {
-        Point head = body.get(0);
-        for (int i = 1; i < body.size(); i++) {
-            if (head.equals(body.get(i))) {
-                return true;
-            }
-        }
-        return false;
+        return body.checkSelfCollision();
+    }
+
+    /**
+     * Empty cells on the board, kept in sync with every move and grow.
+     */
+    public FreeCells getFreeCells() {
+        return body.getFreeCells();
     }
 
     public Direction getDirection() {
-        return direction;
+        return body.getDirection();
     }
 
     public void setDirection(Direction direction) {
-        this.direction = direction;
+        body.setDirection(direction);
     }
 
     public void draw(Graphics2D g, Color color) {
         for (int i = 0; i < body.size(); i++) {
-            Point segment = body.get(i);
-            
+            int x = getSegmentX(i);
+            int y = getSegmentY(i);
+
             if (i == 0) {
                 // Head - brighter
                 g.setColor(color.brighter());
             } else {
                 g.setColor(color);
             }
-            
-            g.fillRoundRect(segment.x + 1, segment.y + 1, 
+
+            g.fillRoundRect(x + 1, y + 1,
                           gridSize - 2, gridSize - 2, 5, 5);
-            
+
             // Add border
             g.setColor(color.darker());
-            g.drawRoundRect(segment.x + 1, segment.y + 1, 
+            g.drawRoundRect(x + 1, y + 1,
                           gridSize - 2, gridSize - 2, 5, 5);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,238 @@
+package com.snakegame;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Snake, food and special food tiles pre-rendered once per cell size into a
+ * single compatible image, so drawing a frame is a run of image blits instead
+ * of building gradients and rounded shapes for every segment.
+ *
+ * Each tile is a cell plus a transparent margin wide enough for the glows.
+ * Body segments fade with their index down to half opacity, so one tile per
+ * fade step covers any length; the food pulse is quantized to a few steps.
+ */
+public class SpriteAtlas {
+    private static final int BODY_STEPS = 26; // alpha 1.0 - 0.02 * i bottoms out at 0.5 for i = 25
+    private static final int PULSE_STEPS = 8;
+    private static final double MIN_PULSE = 0.6;
+    private static final double MAX_PULSE = 1.0;
+    private static final int ATLAS_COLUMNS = 8;
+
+    private static final Color SPECIAL_FOOD_COLOR = new Color(255, 215, 0); // Gold color
+
+    // Tile slots, in order
+    private static final int HEAD_SLOT = 0;
+    private static final int BODY_SLOT = HEAD_SLOT + Direction.values().length;
+    private static final int FOOD_SLOT = BODY_SLOT + BODY_STEPS;
+    private static final int SPECIAL_FOOD_SLOT = FOOD_SLOT + PULSE_STEPS;
+    private static final int SLOT_COUNT = SPECIAL_FOOD_SLOT + PULSE_STEPS;
+
+    private final int cellSize;
+    private final int margin;
+    private final int tileSize;
+    private final Color snakeColor;
+    private final Color eyeColor;
+    private final BufferedImage atlas;
+
+    /**
+     * @param configuration where the atlas will be drawn, so it is created in
+     *                      the screen's native format; null for the default screen
+     */
+    public SpriteAtlas(int cellSize, Color snakeColor, Color eyeColor, GraphicsConfiguration configuration) {
+        this.cellSize = cellSize;
+        // The special food is drawn 1.2 cells wide with three 5px glow rings around it
+        this.margin = cellSize / 10 + 16;
+        this.tileSize = cellSize + 2 * margin;
+        this.snakeColor = snakeColor;
+        this.eyeColor = eyeColor;
+
+        if (configuration == null) {
+            configuration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+        }
+        int rows = (SLOT_COUNT + ATLAS_COLUMNS - 1) / ATLAS_COLUMNS;
+        this.atlas = configuration.createCompatibleImage(
+                ATLAS_COLUMNS * tileSize, rows * tileSize, Transparency.TRANSLUCENT);
+
+        Graphics2D g = atlas.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            renderTiles(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * @return how far a tile can draw outside its cell on any side
+     */
+    public int getMargin() {
+        return margin;
+    }
+
+    /**
+     * Draws the head tile with its cell's top-left corner at (x, y).
+     */
+    public void drawHead(Graphics2D g, Direction direction, int x, int y) {
+        blit(g, HEAD_SLOT + direction.ordinal(), x, y);
+    }
+
+    /**
+     * @param index segment index, 1 for the segment right behind the head
+     */
+    public void drawBody(Graphics2D g, int index, int x, int y) {
+        blit(g, BODY_SLOT + Math.min(index, BODY_STEPS - 1), x, y);
+    }
+
+    /**
+     * @param pulse glow scale, 0.6 to 1
+     */
+    public void drawFood(Graphics2D g, double pulse, int x, int y) {
+        blit(g, FOOD_SLOT + pulseStep(pulse), x, y);
+    }
+
+    /**
+     * @param pulse brightness, 0.6 to 1
+     */
+    public void drawSpecialFood(Graphics2D g, double pulse, int x, int y) {
+        blit(g, SPECIAL_FOOD_SLOT + pulseStep(pulse), x, y);
+    }
+
+    private void blit(Graphics2D g, int slot, int x, int y) {
+        int sx = (slot % ATLAS_COLUMNS) * tileSize;
+        int sy = (slot / ATLAS_COLUMNS) * tileSize;
+        int dx = x - margin;
+        int dy = y - margin;
+        g.drawImage(atlas, dx, dy, dx + tileSize, dy + tileSize,
+                sx, sy, sx + tileSize, sy + tileSize, null);
+    }
+
+    private static int pulseStep(double pulse) {
+        int step = (int) Math.round((pulse - MIN_PULSE) / (MAX_PULSE - MIN_PULSE) * (PULSE_STEPS - 1));
+        return Math.max(0, Math.min(PULSE_STEPS - 1, step));
+    }
+
+    private static double pulseAt(int step) {
+        return MIN_PULSE + (MAX_PULSE - MIN_PULSE) * step / (PULSE_STEPS - 1);
+    }
+
+    private void renderTiles(Graphics2D g) {
+        for (Direction direction : Direction.values()) {
+            renderHead(g, tileOrigin(HEAD_SLOT + direction.ordinal(), true),
+                    tileOrigin(HEAD_SLOT + direction.ordinal(), false), direction);
+        }
+        for (int i = 1; i < BODY_STEPS; i++) {
+            renderBody(g, tileOrigin(BODY_SLOT + i, true), tileOrigin(BODY_SLOT + i, false), i);
+        }
+        for (int step = 0; step < PULSE_STEPS; step++) {
+            renderFood(g, tileOrigin(FOOD_SLOT + step, true),
+                    tileOrigin(FOOD_SLOT + step, false), (float) pulseAt(step));
+            renderSpecialFood(g, tileOrigin(SPECIAL_FOOD_SLOT + step, true),
+                    tileOrigin(SPECIAL_FOOD_SLOT + step, false), (float) pulseAt(step));
+        }
+    }
+
+    // Top-left corner of the cell inside a tile
+    private int tileOrigin(int slot, boolean horizontal) {
+        int tile = horizontal ? slot % ATLAS_COLUMNS : slot / ATLAS_COLUMNS;
+        return tile * tileSize + margin;
+    }
+
+    private void renderHead(Graphics2D g, int x, int y, Direction dir) {
+        // Head with gradient
+        GradientPaint headGradient = new GradientPaint(
+            x, y, snakeColor.brighter(),
+            x + cellSize, y + cellSize, snakeColor
+        );
+        g.setPaint(headGradient);
+        g.fillRoundRect(x + 1, y + 1, cellSize - 2, cellSize - 2, 12, 12);
+
+        // Eyes
+        g.setColor(eyeColor);
+        int eyeOffset = cellSize / 4;
+        int eyeSize = cellSize / 5;
+
+        if (dir == Direction.UP) {
+            g.fillOval(x + eyeOffset, y + eyeOffset, eyeSize, eyeSize);
+            g.fillOval(x + cellSize - eyeOffset - eyeSize, y + eyeOffset, eyeSize, eyeSize);
+        } else if (dir == Direction.DOWN) {
+            g.fillOval(x + eyeOffset, y + cellSize - eyeOffset - eyeSize, eyeSize, eyeSize);
+            g.fillOval(x + cellSize - eyeOffset - eyeSize, y + cellSize - eyeOffset - eyeSize, eyeSize, eyeSize);
+        } else if (dir == Direction.LEFT) {
+            g.fillOval(x + eyeOffset, y + eyeOffset, eyeSize, eyeSize);
+            g.fillOval(x + eyeOffset, y + cellSize - eyeOffset - eyeSize, eyeSize, eyeSize);
+        } else {
+            g.fillOval(x + cellSize - eyeOffset - eyeSize, y + eyeOffset, eyeSize, eyeSize);
+            g.fillOval(x + cellSize - eyeOffset - eyeSize, y + cellSize - eyeOffset - eyeSize, eyeSize, eyeSize);
+        }
+
+        // Head glow
+        g.setColor(new Color(snakeColor.getRed(), snakeColor.getGreen(), snakeColor.getBlue(), 20));
+        g.fillRoundRect(x - 2, y - 2, cellSize + 4, cellSize + 4, 14, 14);
+    }
+
+    private void renderBody(Graphics2D g, int x, int y, int index) {
+        // Body segments with fade effect
+        float alpha = 1.0f - (index * 0.02f);
+        if (alpha < 0.5f) alpha = 0.5f;
+
+        g.setColor(new Color(snakeColor.getRed(), snakeColor.getGreen(), snakeColor.getBlue(),
+                (int) (255 * alpha)));
+        g.fillRoundRect(x + 2, y + 2, cellSize - 4, cellSize - 4, 10, 10);
+
+        // Inner highlight
+        g.setColor(new Color(255, 255, 255, (int) (30 * alpha)));
+        g.fillRoundRect(x + 4, y + 4, cellSize - 8, cellSize - 8, 8, 8);
+    }
+
+    private void renderFood(Graphics2D g, int x, int y, float pulse) {
+        int glowSize = (int) (cellSize * pulse);
+        int glowOffset = (cellSize - glowSize) / 2;
+
+        // Outer glow
+        g.setColor(new Color(255, 100, 100, 30));
+        g.fillOval(x + glowOffset - 5, y + glowOffset - 5, glowSize + 10, glowSize + 10);
+
+        // Main food
+        GradientPaint foodGradient = new GradientPaint(
+            x, y, new Color(255, 120, 120),
+            x + cellSize, y + cellSize, new Color(255, 50, 50)
+        );
+        g.setPaint(foodGradient);
+        g.fillRoundRect(x + 2, y + 2, cellSize - 4, cellSize - 4, cellSize / 2, cellSize / 2);
+
+        // Highlight
+        g.setColor(new Color(255, 255, 255, 100));
+        g.fillOval(x + cellSize / 3, y + cellSize / 4, cellSize / 4, cellSize / 4);
+    }
+
+    private void renderSpecialFood(Graphics2D g, int x, int y, float pulse) {
+        int size = (int) (cellSize * 1.2); // Slightly larger
+        int offset = (cellSize - size) / 2;
+
+        // Glow effect (multiple layers for stronger glow)
+        for (int i = 3; i > 0; i--) {
+            g.setColor(new Color(255, 215, 0, 20 * i));
+            g.fillOval(x + offset - (i * 5), y + offset - (i * 5), size + (i * 10), size + (i * 10));
+        }
+
+        // Main food with pulsing
+        g.setColor(new Color(
+            (int) (SPECIAL_FOOD_COLOR.getRed() * pulse),
+            (int) (SPECIAL_FOOD_COLOR.getGreen() * pulse),
+            (int) (SPECIAL_FOOD_COLOR.getBlue() * pulse)
+        ));
+        g.fillOval(x + offset, y + offset, size, size);
+
+        // Draw banana emoji
+        g.setColor(Color.WHITE);
+        g.setFont(new Font("Segoe UI Emoji", Font.BOLD, cellSize / 2));
+        g.drawString("🍌", x + cellSize / 4, y + cellSize * 3 / 4);
+    }
+}
@@ -1,16 +1,37 @@
 package com.snakegame.firebase;
 
-import com.google.api.core.ApiFuture;
 import com.google.cloud.firestore.*;
 import com.google.firebase.cloud.FirestoreClient;
 import com.snakegame.models.Difficulty;
 import com.snakegame.models.Score;
 import com.snakegame.models.User;
+import com.snakegame.sim.Replay;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
 
 public class FirestoreService {
+    // Scores saved offline, or that could not be written, wait here
+    private static final Path SCORE_JOURNAL = Paths.get("scores.journal");
+    private static final String SCORE_ID_CHARS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final SecureRandom SCORE_ID_RANDOM = new SecureRandom();
+
+    // One journal per process, whichever service opens it first
+    private static ScoreJournal scoreJournal;
+    private static ScoreJournalReplayer journalReplayer;
+    // Likewise one score writer, started on the first saved score: screens
+    // create a service each, and each queue would keep a thread and a
+    // shutdown hook for good
+    private static ScoreWriteQueue scoreQueue;
+    // Set once the userBest index is known to be backfilled; it never goes back
+    private static volatile boolean userBestComplete;
+
     private final Firestore db;
     private final boolean available;
     
@@ -20,12 +41,46 @@ public class FirestoreService {
         
         if (available) {
             this.db = FirestoreClient.getFirestore(FirebaseConfig.getApp());
+            if (Files.exists(SCORE_JOURNAL)) {
+                // Upload what earlier offline sessions left behind
+                getScoreJournal(db);
+            }
         } else {
             this.db = null;
             System.out.println("⚠️  FirestoreService running in offline mode");
         }
     }
     
+    /**
+     * Opens the score journal on first use and, when online, starts
+     * uploading its records in the background.
+     * @return the journal, or null if it cannot be opened
+     */
+    private static synchronized ScoreJournal getScoreJournal(Firestore db) {
+        if (scoreJournal == null) {
+            try {
+                scoreJournal = new ScoreJournal(SCORE_JOURNAL);
+            } catch (IOException e) {
+                System.err.println("❌ Failed to open score journal: " + e.getMessage());
+                return null;
+            }
+        }
+        if (db != null && journalReplayer == null) {
+            journalReplayer = new ScoreJournalReplayer(db, scoreJournal);
+            journalReplayer.start();
+        }
+        return scoreJournal;
+    }
+    
+    // Same shape as Firestore's own auto ids, which need a client to make
+    private static String newScoreId() {
+        char[] id = new char[20];
+        for (int i = 0; i < id.length; i++) {
+            id[i] = SCORE_ID_CHARS.charAt(SCORE_ID_RANDOM.nextInt(SCORE_ID_CHARS.length()));
+        }
+        return new String(id);
+    }
+    
     private void checkAvailability() throws Exception {
         if (!available) {
             throw new Exception("Firebase is not available. Running in offline mode.");
@@ -124,29 +179,46 @@ public class FirestoreService {
             .update("avatarUrl", avatarUrl).get();
     }
     
+    /**
+     * Raises the user's high score if {@code newHighScore} beats it. The read
+     * and the write are one transaction, so a concurrent higher score is
+     * never overwritten by a lower one.
+     */
     public void updateHighScore(String userId, int newHighScore) throws Exception {
         checkAvailability();
         
         DocumentReference userRef = db.collection("users").document(userId);
-        DocumentSnapshot userDoc = userRef.get().get();
-        
-        if (userDoc.exists()) {
-            int currentHighScore = userDoc.getLong("highScore").intValue();
-            if (newHighScore > currentHighScore) {
-                userRef.update("highScore", newHighScore).get();
+        db.runTransaction(transaction -> {
+            DocumentSnapshot userDoc = transaction.get(userRef).get();
+            if (userDoc.exists()) {
+                Long currentHighScore = userDoc.getLong("highScore");
+                if (currentHighScore == null || newHighScore > currentHighScore) {
+                    transaction.update(userRef, "highScore", newHighScore);
+                }
             }
-        }
+            return null;
+        }).get();
     }
     
     // ===== SCORE OPERATIONS =====
     
     public void saveScore(Score score) throws Exception {
-        if (!available) {
-            System.out.println("⚠️  Offline mode: Score not saved to Firebase");
-            System.out.println("📊 Local Score: " + score.getScore());
-            return;
-        }
-        
+        saveScore(score, null);
+    }
+    
+    /**
+     * Saves a score along with the replay it came from, so it can be checked
+     * again by re-simulating the seed and inputs.
+     *
+     * Returns once the score is queued. The document id is assigned right
+     * away; the document and the user's games played and high score are
+     * written in the next batch of {@link ScoreWriteQueue}.
+     *
+     * Offline, or if the queue will not take it, the score goes to the local
+     * {@link ScoreJournal} under that same id and is uploaded once Firebase
+     * is reachable; the id makes a repeated upload a no-op.
+     */
+    public void saveScore(Score score, Replay replay) throws Exception {
         Map<String, Object> scoreData = new HashMap<>();
         scoreData.put("userId", score.getUserId());
         scoreData.put("userName", score.getUserName());
@@ -154,22 +226,108 @@ public class FirestoreService {
         scoreData.put("score", score.getScore());
         scoreData.put("difficulty", score.getDifficulty().name());
         scoreData.put("timestamp", new Date());
+        if (replay != null) {
+            scoreData.put("seed", replay.getSeed());
+            scoreData.put("ticks", replay.getEndTick());
+            scoreData.put("replay", Blob.fromBytes(replay.getEvents()));
+        }
         
-        ApiFuture<DocumentReference> future = db.collection("scores").add(scoreData);
-        DocumentReference docRef = future.get();
-        score.setScoreId(docRef.getId());
-        
-        // Update user stats
-        DocumentReference userRef = db.collection("users").document(score.getUserId());
-        userRef.update("totalGamesPlayed", FieldValue.increment(1)).get();
+        if (!available) {
+            score.setScoreId(newScoreId());
+            journalScore(score, scoreData);
+            return;
+        }
         
-        // Update high score if needed
-        updateHighScore(score.getUserId(), score.getScore());
+        DocumentReference docRef = db.collection("scores").document();
+        score.setScoreId(docRef.getId());
+        try {
+            getScoreQueue(db).enqueue(docRef, scoreData, score.getUserId(), score.getScore());
+        } catch (Exception e) {
+            System.err.println("⚠️  " + e.getMessage());
+            journalScore(score, scoreData);
+        }
+    }
+    
+    private void journalScore(Score score, Map<String, Object> scoreData) throws Exception {
+        ScoreJournal journal = getScoreJournal(db);
+        if (journal == null) {
+            System.out.println("⚠️  Score not saved to Firebase");
+            System.out.println("📊 Local Score: " + score.getScore());
+            return;
+        }
+        try {
+            journal.append(score.getScoreId(), scoreData);
+        } catch (IOException e) {
+            throw new Exception("Failed to journal score: " + e.getMessage());
+        }
+        System.out.println("📝 Score " + score.getScore() + " journaled for upload (" + journal.getStats() + ")");
     }
     
+    private static synchronized ScoreWriteQueue getScoreQueue(Firestore db) {
+        if (scoreQueue == null) {
+            scoreQueue = new ScoreWriteQueue(db, ScoreWriteQueue.DEFAULT_CAPACITY,
+                    ScoreWriteQueue.DEFAULT_FLUSH_INTERVAL_MILLIS, getScoreJournal(db));
+        }
+        return scoreQueue;
+    }
+    
+    /**
+     * Waits for queued scores to be written, so reads that follow see them.
+     * @return false if they were not all written within the timeout
+     */
+    public boolean awaitScoresWritten(long timeoutMillis) throws InterruptedException {
+        ScoreWriteQueue queue;
+        synchronized (FirestoreService.class) {
+            queue = scoreQueue;
+        }
+        return queue == null || queue.awaitFlushed(timeoutMillis);
+    }
+    
+    /**
+     * @return queue depth and flush latency of the score writer
+     */
+    public String getScoreQueueStats() {
+        synchronized (FirestoreService.class) {
+            return scoreQueue == null ? "no scores queued" : scoreQueue.getStats();
+        }
+    }
+    
+    /**
+     * Writes out queued scores and stops the score writer shared by all
+     * services; the next saved score starts a new one. Also runs on JVM exit.
+     */
+    public void shutdown() {
+        ScoreWriteQueue queue;
+        synchronized (FirestoreService.class) {
+            queue = scoreQueue;
+            scoreQueue = null;
+        }
+        if (queue != null) {
+            queue.close();
+        }
+    }
+    
+    /**
+     * Reads the top scores from the materialized {@code leaderboards/{difficulty}}
+     * document, one document read. Only a limit beyond what it holds, or a
+     * difficulty nobody has scored on since it was introduced, queries the
+     * {@code scores} collection.
+     */
     public List<Score> getLeaderboard(Difficulty difficulty, int limit) throws Exception {
         checkAvailability();
         
+        if (limit <= LeaderboardDocument.SIZE) {
+            DocumentSnapshot board = LeaderboardDocument.ref(db, difficulty.name()).get().get();
+            if (board.exists()) {
+                List<Score> leaderboard = new ArrayList<>();
+                for (Map<String, Object> entry : LeaderboardDocument.entries(board)) {
+                    if (leaderboard.size() == limit) break;
+                    leaderboard.add(LeaderboardDocument.toScore(entry, difficulty));
+                }
+                return leaderboard;
+            }
+        }
+        
         Query query = db.collection("scores")
             .whereEqualTo("difficulty", difficulty.name())
             .orderBy("score", Query.Direction.DESCENDING)
@@ -185,9 +343,31 @@ public class FirestoreService {
         return leaderboard;
     }
     
+    /**
+     * The best score of each of the top {@code limit} users, from the
+     * {@link UserBest} index: one row per user, so it always fills the limit
+     * when that many users have scored, at {@code limit} document reads.
+     * Until {@link UserBestBackfill} has run it deduplicates raw scores
+     * instead, since the index only covers users who played since.
+     */
     public List<Score> getGlobalLeaderboard(int limit) throws Exception {
         checkAvailability();
         
+        if (!userBestComplete && UserBest.completeMarker(db).get().get().exists()) {
+            userBestComplete = true;
+        }
+        if (userBestComplete) {
+            QuerySnapshot bestSnapshot = UserBest.top(db, limit).get().get();
+            List<Score> leaderboard = new ArrayList<>();
+            for (QueryDocumentSnapshot document : bestSnapshot.getDocuments()) {
+                Score score = mapToScore(document);
+                if (score.getDifficulty() == null) continue;
+                score.setScoreId(document.getString("scoreId"));
+                leaderboard.add(score);
+            }
+            return leaderboard;
+        }
+        
         Query query = db.collection("scores")
             .orderBy("score", Query.Direction.DESCENDING)
             .limit(limit * 3);
@@ -236,7 +416,8 @@ public class FirestoreService {
         score.setUserName(document.getString("userName"));
         score.setAvatarUrl(document.getString("avatarUrl"));
         score.setScore(document.getLong("score").intValue());
-        score.setDifficulty(Difficulty.valueOf(document.getString("difficulty")));
+        String difficulty = document.getString("difficulty");
+        score.setDifficulty(difficulty == null ? null : Difficulty.valueOf(difficulty));
         score.setTimestamp(document.getDate("timestamp"));
         return score;
     }
@@ -0,0 +1,143 @@
+package com.snakegame.firebase;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.snakegame.models.Difficulty;
+import com.snakegame.models.Score;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The materialized top scores of one difficulty, {@code leaderboards/{difficulty}}:
+ * a single document whose {@code entries} array holds the best {@link #SIZE}
+ * scores, highest first, with what the leaderboard shows of each. Reading a
+ * leaderboard is then one document fetch however many scores there are.
+ *
+ * {@link ScoreWrite#commitAll} keeps it current, merging new scores in the
+ * same transaction that writes them, but only when one of them beats
+ * {@link #MIN_SCORE}, read outside the transaction beforehand. Most scores
+ * do not, so most writes never touch this one shared document. The first
+ * write for a difficulty builds the document from a query over
+ * {@code scores}; until then readers fall back to that query.
+ */
+final class LeaderboardDocument {
+    static final int SIZE = 100;
+    static final String ENTRIES = "entries";
+    // Score of the last entry once the board is full; a new score has to
+    // beat it to get in
+    static final String MIN_SCORE = "minScore";
+
+    // Highest score first; among equal scores the earlier one keeps its place
+    private static final Comparator<Map<String, Object>> RANKING =
+            Comparator.<Map<String, Object>>comparingLong(entry -> -scoreOf(entry))
+                    .thenComparingLong(entry -> timeOf(entry.get("timestamp")));
+
+    private LeaderboardDocument() {}
+
+    static DocumentReference ref(Firestore db, String difficulty) {
+        return db.collection("leaderboards").document(difficulty);
+    }
+
+    static Query source(Firestore db, String difficulty) {
+        return db.collection("scores")
+            .whereEqualTo("difficulty", difficulty)
+            .orderBy("score", Query.Direction.DESCENDING)
+            .limit(SIZE);
+    }
+
+    /**
+     * @return the entries stored in a leaderboard document, highest first
+     */
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> entries(DocumentSnapshot snapshot) {
+        Object entries = snapshot.get(ENTRIES);
+        return entries instanceof List ? new ArrayList<>((List<Map<String, Object>>) entries) : new ArrayList<>();
+    }
+
+    static Map<String, Object> entry(String scoreId, Map<String, Object> scoreData) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("scoreId", scoreId);
+        entry.put("userId", scoreData.get("userId"));
+        entry.put("userName", scoreData.get("userName"));
+        entry.put("avatarUrl", scoreData.get("avatarUrl"));
+        entry.put("score", scoreData.get("score"));
+        entry.put("timestamp", scoreData.get("timestamp"));
+        return entry;
+    }
+
+    /**
+     * Ranks new entries into {@code entries} and cuts it back to {@link #SIZE}.
+     * @return whether any of them made it in
+     */
+    static boolean merge(List<Map<String, Object>> entries, List<Map<String, Object>> added) {
+        boolean changed = false;
+        for (Map<String, Object> entry : added) {
+            if (entries.size() >= SIZE && RANKING.compare(entry, entries.get(entries.size() - 1)) >= 0) {
+                continue;
+            }
+            int at = 0;
+            while (at < entries.size() && RANKING.compare(entries.get(at), entry) <= 0) {
+                at++;
+            }
+            entries.add(at, entry);
+            if (entries.size() > SIZE) {
+                entries.remove(entries.size() - 1);
+            }
+            changed = true;
+        }
+        return changed;
+    }
+
+    static Map<String, Object> document(List<Map<String, Object>> entries) {
+        Map<String, Object> document = new HashMap<>();
+        document.put(ENTRIES, entries);
+        document.put(MIN_SCORE, entries.size() < SIZE ? null : scoreOf(entries.get(entries.size() - 1)));
+        document.put("updatedAt", new Date());
+        return document;
+    }
+
+    /**
+     * Whether {@code score} could enter the board as of {@code snapshot}, read
+     * with at least {@link #MIN_SCORE}. The threshold only ever rises, so an
+     * outdated snapshot can let a score through that no longer makes it, but
+     * never turns one away that does.
+     */
+    static boolean admits(DocumentSnapshot snapshot, long score) {
+        if (!snapshot.exists()) return true;
+        Long minScore = snapshot.getLong(MIN_SCORE);
+        return minScore == null || score > minScore;
+    }
+
+    static Score toScore(Map<String, Object> entry, Difficulty difficulty) {
+        Score score = new Score();
+        score.setScoreId((String) entry.get("scoreId"));
+        score.setUserId((String) entry.get("userId"));
+        score.setUserName((String) entry.get("userName"));
+        score.setAvatarUrl((String) entry.get("avatarUrl"));
+        score.setScore((int) scoreOf(entry));
+        score.setDifficulty(difficulty);
+        Object timestamp = entry.get("timestamp");
+        score.setTimestamp(timestamp == null ? null : new Date(timeOf(timestamp)));
+        return score;
+    }
+
+    private static long scoreOf(Map<String, Object> entry) {
+        Object score = entry.get("score");
+        return score instanceof Number ? ((Number) score).longValue() : 0;
+    }
+
+    // Dates read back from Firestore come as Timestamps
+    private static long timeOf(Object timestamp) {
+        if (timestamp instanceof Timestamp) return ((Timestamp) timestamp).toDate().getTime();
+        if (timestamp instanceof Date) return ((Date) timestamp).getTime();
+        return Long.MAX_VALUE;
+    }
+}
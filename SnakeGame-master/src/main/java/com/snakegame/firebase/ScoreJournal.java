@@ -0,0 +1,404 @@
+package com.snakegame.firebase;
+
+import com.google.cloud.firestore.Blob;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only local journal of scores that could not be written to
+ * Firestore, because the game is offline or the writes kept failing. Each
+ * record is the score's client-chosen document id and its fields, framed as
+ * length | body | crc32c(body) after a "SNKJ" header, like the replay
+ * archive.
+ *
+ * {@link #append} returns only once the record is on disk. Appends that
+ * arrive while another is being forced wait for it and are usually covered
+ * by one fsync together, so a burst of scores costs a few syncs, not one each.
+ * A whole failed flush goes in through {@link #appendAll}, one write and one
+ * fsync for the lot.
+ *
+ * Uploaded records are acknowledged by offset in a small side file,
+ * {@code <journal>.ack}; once everything is acknowledged both are cut back
+ * to empty. A record torn by a crash is cut off when the journal is opened.
+ */
+public class ScoreJournal implements AutoCloseable {
+    private static final int MAGIC = 0x534E4B4A; // "SNKJ"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    // Value tags for score fields
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte LONG = 2;
+    private static final byte DATE = 3;
+    private static final byte BLOB = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte DOUBLE = 6;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final FileChannel ackChannel;
+    private final CRC32C crc = new CRC32C();
+
+    // Lock order: syncLock, then writeLock
+    private final Object syncLock = new Object();
+    private final Object writeLock = new Object();
+    private long writtenTo;  // end of the last appended record, under writeLock
+    private long syncedTo;   // how much of that is forced to disk, under syncLock
+    private long ackedTo;    // end of the last uploaded record, under writeLock
+
+    private long syncs;
+    private long corruptRecords;
+
+    public ScoreJournal(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.ackChannel = FileChannel.open(Paths.get(path + ".ack"), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        try {
+            open();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void open() throws IOException {
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).flip();
+            writeFully(header, 0);
+            channel.force(false);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, 0);
+        if (header.getInt(0) != MAGIC || header.getShort(4) != VERSION) {
+            throw new IOException("Not a score journal: " + path);
+        }
+
+        // Walk the records to cut off one torn by a crash mid-append
+        long end = HEADER_SIZE;
+        ByteBuffer length = ByteBuffer.allocate(4);
+        while (end + 4 <= channel.size()) {
+            length.clear();
+            readFully(length, end);
+            long next = end + 4 + length.getInt(0) + 4;
+            if (length.getInt(0) <= 0 || next > channel.size()) break;
+            end = next;
+        }
+        if (end < channel.size()) {
+            channel.truncate(end);
+            channel.force(false);
+        }
+        writtenTo = end;
+        syncedTo = end;
+
+        ByteBuffer ack = ByteBuffer.allocate(8);
+        long acked = HEADER_SIZE;
+        if (ackChannel.size() >= 8) {
+            readFully(ackChannel, ack, 0);
+            acked = ack.getLong(0);
+        }
+        // Past the end means the journal was cut back before the ack was
+        if (acked < HEADER_SIZE || acked > end) {
+            acked = HEADER_SIZE;
+        }
+        ackedTo = acked;
+    }
+
+    /**
+     * Appends a score and returns once it is durable.
+     * @param scoreId the document id the score will be uploaded under
+     */
+    public void append(String scoreId, Map<String, Object> scoreData) throws IOException {
+        ByteBuffer record = record(encode(scoreId, scoreData));
+
+        long end;
+        synchronized (writeLock) {
+            writeFully(record, writtenTo);
+            writtenTo += record.capacity();
+            end = writtenTo;
+        }
+        sync(end);
+    }
+
+    /**
+     * Appends a batch of scores, such as a flush that could not be written,
+     * and returns once all of them are durable, with a single fsync.
+     */
+    void appendAll(List<ScoreWrite> scores) throws IOException {
+        List<ByteBuffer> records = new ArrayList<>(scores.size());
+        int size = 0;
+        for (ScoreWrite score : scores) {
+            ByteBuffer record = record(encode(score.scoreRef.getId(), score.scoreData));
+            records.add(record);
+            size += record.capacity();
+        }
+        ByteBuffer batch = ByteBuffer.allocate(size);
+        for (ByteBuffer record : records) {
+            batch.put(record);
+        }
+        batch.flip();
+
+        long end;
+        synchronized (writeLock) {
+            writeFully(batch, writtenTo);
+            writtenTo += size;
+            end = writtenTo;
+        }
+        sync(end);
+    }
+
+    // Frames an encoded score as length | body | crc32c(body)
+    private ByteBuffer record(byte[] body) {
+        ByteBuffer record = ByteBuffer.allocate(4 + body.length + 4);
+        record.putInt(body.length).put(body);
+        synchronized (crc) {
+            crc.reset();
+            crc.update(body);
+            record.putInt((int) crc.getValue());
+        }
+        record.flip();
+        return record;
+    }
+
+    private void sync(long end) throws IOException {
+        synchronized (syncLock) {
+            // The force of an append that got here first may cover this one
+            if (syncedTo >= end) return;
+            long target;
+            synchronized (writeLock) {
+                target = writtenTo;
+            }
+            channel.force(false);
+            syncedTo = target;
+            syncs++;
+        }
+    }
+
+    public boolean hasPending() {
+        synchronized (writeLock) {
+            return ackedTo < writtenTo;
+        }
+    }
+
+    /**
+     * @return up to {@code max} records not yet acknowledged, oldest first.
+     *         Records failing their checksum come back as corrupt entries,
+     *         with no score, so they can be acknowledged past.
+     */
+    public List<Entry> readPending(int max) throws IOException {
+        long position;
+        long end;
+        synchronized (writeLock) {
+            position = ackedTo;
+            end = writtenTo;
+        }
+        List<Entry> entries = new ArrayList<>();
+        ByteBuffer length = ByteBuffer.allocate(4);
+        while (position < end && entries.size() < max) {
+            length.clear();
+            readFully(length, position);
+            int bodyLength = length.getInt(0);
+            ByteBuffer record = ByteBuffer.allocate(bodyLength + 4);
+            readFully(record, position + 4);
+            position += 4 + bodyLength + 4;
+
+            boolean intact;
+            synchronized (crc) {
+                crc.reset();
+                crc.update(record.array(), 0, bodyLength);
+                intact = (int) crc.getValue() == record.getInt(bodyLength);
+            }
+            if (!intact) {
+                synchronized (writeLock) {
+                    corruptRecords++;
+                }
+                entries.add(new Entry(null, null, position));
+                continue;
+            }
+            entries.add(decode(record.array(), bodyLength, position));
+        }
+        return entries;
+    }
+
+    /**
+     * Marks every record up to and including {@code entry} as uploaded.
+     */
+    public void acknowledge(Entry entry) throws IOException {
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                if (entry.end <= ackedTo) return;
+                ackedTo = entry.end;
+                if (ackedTo == writtenTo) {
+                    // Everything is uploaded: start the journal over
+                    channel.truncate(HEADER_SIZE);
+                    channel.force(false);
+                    writtenTo = HEADER_SIZE;
+                    syncedTo = HEADER_SIZE;
+                    ackedTo = HEADER_SIZE;
+                }
+                ByteBuffer ack = ByteBuffer.allocate(8);
+                ack.putLong(0, ackedTo);
+                writeFully(ackChannel, ack, 0);
+                ackChannel.force(false);
+            }
+        }
+    }
+
+    public String getStats() {
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                return String.format("%d bytes pending, %d syncs, %d corrupt records",
+                        writtenTo - ackedTo, syncs, corruptRecords);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            ackChannel.close();
+        }
+    }
+
+    /**
+     * One journaled score.
+     */
+    public static final class Entry {
+        private final String scoreId;
+        private final Map<String, Object> scoreData;
+        private final long end;
+
+        Entry(String scoreId, Map<String, Object> scoreData, long end) {
+            this.scoreId = scoreId;
+            this.scoreData = scoreData;
+            this.end = end;
+        }
+
+        public String getScoreId() {
+            return scoreId;
+        }
+
+        public Map<String, Object> getScoreData() {
+            return scoreData;
+        }
+
+        public boolean isCorrupt() {
+            return scoreId == null;
+        }
+    }
+
+    private static byte[] encode(String scoreId, Map<String, Object> scoreData) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(scoreId);
+        out.writeShort(scoreData.size());
+        for (Map.Entry<String, Object> field : scoreData.entrySet()) {
+            out.writeUTF(field.getKey());
+            Object value = field.getValue();
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof String) {
+                out.writeByte(STRING);
+                out.writeUTF((String) value);
+            } else if (value instanceof Long || value instanceof Integer) {
+                out.writeByte(LONG);
+                out.writeLong(((Number) value).longValue());
+            } else if (value instanceof Date) {
+                out.writeByte(DATE);
+                out.writeLong(((Date) value).getTime());
+            } else if (value instanceof Blob) {
+                byte[] blob = ((Blob) value).toBytes();
+                out.writeByte(BLOB);
+                out.writeInt(blob.length);
+                out.write(blob);
+            } else if (value instanceof Boolean) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else if (value instanceof Double) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else {
+                throw new IllegalArgumentException("Cannot journal " + field.getKey()
+                        + " of type " + value.getClass().getName());
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Entry decode(byte[] body, int length, long end) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body, 0, length));
+        String scoreId = in.readUTF();
+        int fields = in.readUnsignedShort();
+        Map<String, Object> scoreData = new LinkedHashMap<>();
+        for (int i = 0; i < fields; i++) {
+            String key = in.readUTF();
+            byte tag = in.readByte();
+            switch (tag) {
+                case NULL: scoreData.put(key, null); break;
+                case STRING: scoreData.put(key, in.readUTF()); break;
+                case LONG: scoreData.put(key, in.readLong()); break;
+                case DATE: scoreData.put(key, new Date(in.readLong())); break;
+                case BLOB: {
+                    byte[] blob = new byte[in.readInt()];
+                    in.readFully(blob);
+                    scoreData.put(key, Blob.fromBytes(blob));
+                    break;
+                }
+                case BOOLEAN: scoreData.put(key, in.readBoolean()); break;
+                case DOUBLE: scoreData.put(key, in.readDouble()); break;
+                default: throw new IOException("Unknown field type " + tag + " in score " + scoreId);
+            }
+        }
+        return new Entry(scoreId, scoreData, end);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        readFully(channel, buffer, position);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of score journal");
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        writeFully(channel, buffer, position);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.snakegame.firebase;
+
+import com.google.cloud.firestore.Firestore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uploads journaled scores in the background: right away when started, then
+ * every {@link #RETRY_SECONDS} while any are left. Each group of records is
+ * written by {@link ScoreWrite#commitAll}, which skips score documents that
+ * already exist, and only then acknowledged; so a record uploaded just before
+ * a crash, and uploaded again after it, still counts once.
+ */
+public class ScoreJournalReplayer implements AutoCloseable {
+    public static final int RETRY_SECONDS = 30;
+    private static final int RECORDS_PER_COMMIT = 100;
+
+    private final Firestore db;
+    private final ScoreJournal journal;
+    private final ScheduledExecutorService executor;
+    private volatile long uploaded;
+
+    public ScoreJournalReplayer(Firestore db, ScoreJournal journal) {
+        this.db = db;
+        this.journal = journal;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "score-journal-replayer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        executor.scheduleWithFixedDelay(this::uploadPending, 0, RETRY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public long getUploaded() {
+        return uploaded;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private void uploadPending() {
+        try {
+            while (journal.hasPending()) {
+                List<ScoreJournal.Entry> entries = journal.readPending(RECORDS_PER_COMMIT);
+                if (entries.isEmpty()) break;
+
+                List<ScoreWrite> writes = new ArrayList<>(entries.size());
+                for (ScoreJournal.Entry entry : entries) {
+                    if (entry.isCorrupt()) continue;
+                    Map<String, Object> data = entry.getScoreData();
+                    writes.add(new ScoreWrite(db.collection("scores").document(entry.getScoreId()), data,
+                            (String) data.get("userId"), ((Number) data.get("score")).intValue()));
+                }
+                if (!writes.isEmpty()) {
+                    ScoreWrite.commitAll(db, writes);
+                }
+                journal.acknowledge(entries.get(entries.size() - 1));
+                uploaded += writes.size();
+                if (writes.size() < entries.size()) {
+                    System.err.println("⚠️  Skipped " + (entries.size() - writes.size())
+                            + " corrupt journal records");
+                }
+                if (!writes.isEmpty()) {
+                    System.out.println("📤 Uploaded " + writes.size() + " journaled scores");
+                }
+            }
+        } catch (Exception e) {
+            // Still offline or failing; the next run tries again
+            System.err.println("⚠️  Journaled scores not uploaded yet: " + e.getMessage());
+        }
+    }
+}
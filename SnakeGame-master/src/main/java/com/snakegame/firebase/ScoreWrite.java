@@ -0,0 +1,206 @@
+package com.snakegame.firebase;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.TransactionOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One score document waiting to be written, and the transaction that writes
+ * a group of them. Shared by {@link ScoreWriteQueue} and
+ * {@link ScoreJournalReplayer}.
+ */
+final class ScoreWrite {
+    // Transactions contend on a user's documents when the same user finishes
+    // games at once, and on a leaderboard document when scores from anyone
+    // make the same board at once; both are rare, so give a burst room to
+    // serialize before a write counts as failed
+    private static final TransactionOptions TRANSACTION_OPTIONS =
+            TransactionOptions.createReadWriteOptionsBuilder().setNumberOfAttempts(25).build();
+    // Users are read for their high score, leaderboards for their entries,
+    // best scores for the score, score documents only for existence
+    private static final FieldMask READ_MASK = FieldMask.of("highScore", LeaderboardDocument.ENTRIES, "score");
+    private static final FieldMask THRESHOLD_ONLY = FieldMask.of(LeaderboardDocument.MIN_SCORE);
+
+    final DocumentReference scoreRef;
+    final Map<String, Object> scoreData;
+    final String userId;
+    final int score;
+    final long enqueuedNanos = System.nanoTime();
+
+    ScoreWrite(DocumentReference scoreRef, Map<String, Object> scoreData, String userId, int score) {
+        this.scoreRef = scoreRef;
+        this.scoreData = scoreData;
+        this.userId = userId;
+        this.score = score;
+    }
+
+    /**
+     * Writes the score documents and, per user, games played incremented by
+     * the number of new games and the high score raised to the best of them,
+     * all in one transaction with a single read. The read covers the users'
+     * high scores, so a concurrent game cannot lose an update, and the score
+     * documents, which ids the client chose: one that already exists was
+     * written by an earlier attempt and is skipped, so a retry after a
+     * commit whose reply was lost counts nothing twice.
+     *
+     * New scores also raise their user's {@link UserBest}, read in the same
+     * getAll, and are ranked into their difficulty's
+     * {@link LeaderboardDocument} when a plain read of its threshold says
+     * one of them can get in. Only then is the board read and written in the
+     * transaction, so scores that cannot make it do not queue up behind
+     * everyone else's on that document.
+     */
+    static void commitAll(Firestore db, List<ScoreWrite> writes) throws Exception {
+        Map<String, Integer> userIndex = new LinkedHashMap<>();
+        Map<String, Integer> bestPerBoard = new LinkedHashMap<>();
+        for (ScoreWrite write : writes) {
+            userIndex.putIfAbsent(write.userId, userIndex.size());
+            String difficulty = (String) write.scoreData.get("difficulty");
+            if (difficulty != null) {
+                bestPerBoard.merge(difficulty, write.score, Math::max);
+            }
+        }
+        Map<String, Integer> boardIndex = new LinkedHashMap<>();
+        if (!bestPerBoard.isEmpty()) {
+            DocumentReference[] boardRefs = new DocumentReference[bestPerBoard.size()];
+            int next = 0;
+            for (String difficulty : bestPerBoard.keySet()) {
+                boardRefs[next++] = LeaderboardDocument.ref(db, difficulty);
+            }
+            List<DocumentSnapshot> thresholds = db.getAll(boardRefs, THRESHOLD_ONLY).get();
+            next = 0;
+            for (Map.Entry<String, Integer> board : bestPerBoard.entrySet()) {
+                if (LeaderboardDocument.admits(thresholds.get(next++), board.getValue())) {
+                    boardIndex.put(board.getKey(), boardIndex.size());
+                }
+            }
+        }
+        int userCount = userIndex.size();
+        int boardsAt = userCount + writes.size();
+        int bestsAt = boardsAt + boardIndex.size();
+        DocumentReference[] refs = new DocumentReference[bestsAt + userCount];
+        for (Map.Entry<String, Integer> user : userIndex.entrySet()) {
+            refs[user.getValue()] = db.collection("users").document(user.getKey());
+            refs[bestsAt + user.getValue()] = UserBest.ref(db, user.getKey());
+        }
+        for (int i = 0; i < writes.size(); i++) {
+            refs[userCount + i] = writes.get(i).scoreRef;
+        }
+        for (Map.Entry<String, Integer> board : boardIndex.entrySet()) {
+            refs[boardsAt + board.getValue()] = LeaderboardDocument.ref(db, board.getKey());
+        }
+
+        // May run more than once, so it only stages writes
+        db.runTransaction(transaction -> {
+            List<DocumentSnapshot> snapshots = transaction.getAll(refs, READ_MASK).get();
+
+            // All reads come before the first write: a leaderboard that does
+            // not exist yet starts from the best scores already stored
+            List<List<Map<String, Object>>> boards = new ArrayList<>(boardIndex.size());
+            for (Map.Entry<String, Integer> board : boardIndex.entrySet()) {
+                DocumentSnapshot snapshot = snapshots.get(boardsAt + board.getValue());
+                if (snapshot.exists()) {
+                    boards.add(LeaderboardDocument.entries(snapshot));
+                } else {
+                    List<Map<String, Object>> entries = new ArrayList<>();
+                    for (QueryDocumentSnapshot score : transaction.get(
+                            LeaderboardDocument.source(db, board.getKey())).get().getDocuments()) {
+                        entries.add(LeaderboardDocument.entry(score.getId(), score.getData()));
+                    }
+                    boards.add(entries);
+                }
+            }
+
+            // Likewise a missing best score starts from the user's stored scores
+            long[] bestSoFar = new long[userCount];
+            List<Map<String, Object>> seededBest = new ArrayList<>(Collections.nCopies(userCount, null));
+            for (Map.Entry<String, Integer> user : userIndex.entrySet()) {
+                int index = user.getValue();
+                DocumentSnapshot snapshot = snapshots.get(bestsAt + index);
+                if (snapshot.exists()) {
+                    Long score = snapshot.getLong("score");
+                    bestSoFar[index] = score == null ? Long.MIN_VALUE : score;
+                    continue;
+                }
+                bestSoFar[index] = Long.MIN_VALUE;
+                if (!snapshots.get(index).exists()) continue;
+                for (QueryDocumentSnapshot score : transaction.get(
+                        UserBest.source(db, user.getKey())).get().getDocuments()) {
+                    // As on the leaderboards, scores without a difficulty are left out
+                    if (score.getString("difficulty") == null) continue;
+                    seededBest.set(index, UserBest.document(score.getId(), score.getData()));
+                    Long value = score.getLong("score");
+                    bestSoFar[index] = value == null ? Long.MIN_VALUE : value;
+                }
+            }
+
+            int[] games = new int[userCount];
+            int[] best = new int[userCount];
+            ScoreWrite[] bestWrite = new ScoreWrite[userCount];
+            List<List<Map<String, Object>>> added = new ArrayList<>(boardIndex.size());
+            for (int board = 0; board < boardIndex.size(); board++) {
+                added.add(new ArrayList<>());
+            }
+            for (int i = 0; i < writes.size(); i++) {
+                if (snapshots.get(userCount + i).exists()) continue;
+                ScoreWrite write = writes.get(i);
+                transaction.set(write.scoreRef, write.scoreData);
+                int user = userIndex.get(write.userId);
+                best[user] = games[user] == 0 ? write.score : Math.max(best[user], write.score);
+                games[user]++;
+                String difficulty = (String) write.scoreData.get("difficulty");
+                if (difficulty != null && (bestWrite[user] == null || write.score > bestWrite[user].score)) {
+                    bestWrite[user] = write;
+                }
+                Integer board = boardIndex.get(difficulty);
+                if (board != null) {
+                    added.get(board).add(LeaderboardDocument.entry(write.scoreRef.getId(), write.scoreData));
+                }
+            }
+
+            for (Map.Entry<String, Integer> board : boardIndex.entrySet()) {
+                List<Map<String, Object>> entries = boards.get(board.getValue());
+                boolean created = !snapshots.get(boardsAt + board.getValue()).exists();
+                if (LeaderboardDocument.merge(entries, added.get(board.getValue())) || created) {
+                    transaction.set(refs[boardsAt + board.getValue()], LeaderboardDocument.document(entries));
+                }
+            }
+
+            for (int user = 0; user < userCount; user++) {
+                DocumentSnapshot snapshot = snapshots.get(user);
+                // update() would fail the whole transaction for a missing user
+                if (games[user] == 0 || !snapshot.exists()) continue;
+                Map<String, Object> updates = new HashMap<>();
+                updates.put("totalGamesPlayed", FieldValue.increment(games[user]));
+                Long highScore = snapshot.getLong("highScore");
+                if (highScore == null || best[user] > highScore) {
+                    updates.put("highScore", best[user]);
+                }
+                transaction.update(snapshot.getReference(), updates);
+            }
+
+            for (int user = 0; user < userCount; user++) {
+                // Like the stats, only for users that exist
+                if (!snapshots.get(user).exists()) continue;
+                if (bestWrite[user] != null && bestWrite[user].score > bestSoFar[user]) {
+                    transaction.set(refs[bestsAt + user],
+                            UserBest.document(bestWrite[user].scoreRef.getId(), bestWrite[user].scoreData));
+                } else if (seededBest.get(user) != null) {
+                    transaction.set(refs[bestsAt + user], seededBest.get(user));
+                }
+            }
+            return null;
+        }, TRANSACTION_OPTIONS).get();
+    }
+}
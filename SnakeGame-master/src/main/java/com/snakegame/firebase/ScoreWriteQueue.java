@@ -0,0 +1,255 @@
+package com.snakegame.firebase;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.snakegame.LatencyHistogram;
+import com.snakegame.models.Difficulty;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind pipeline for scores. Callers only enqueue; one flusher thread
+ * collects scores for up to {@code flushIntervalMillis} after the first one
+ * arrives and writes them together: the score documents plus one coalesced
+ * update per user (games played incremented by the number of games, high
+ * score raised to the best of them). That replaces four sequential round
+ * trips per score.
+ *
+ * Each flush is one transaction, {@link ScoreWrite#commitAll}: the users'
+ * current high scores are read in it, with a single getAll, and committed
+ * with the writes. Firestore retries the transaction if another client
+ * changed those users in between, so two games finishing at once can never
+ * both read the old high score and have the lower one win.
+ *
+ * The queue is bounded, so a stalled backend pushes back on callers instead
+ * of growing without limit. Scores that still fail after retries go to the
+ * {@link ScoreJournal}, if one is given, to be uploaded later.
+ * {@link #close()}, also run from a shutdown hook, stops intake and waits for
+ * everything queued to be written.
+ */
+public class ScoreWriteQueue implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 500;
+
+    // A transaction holds at most 500 writes. ScoreWrite.commitAll stages,
+    // per score, the score itself plus, at worst when every score is a
+    // different user's, that user's stats and userBest; and on top one
+    // leaderboard document per difficulty. Its getAll reads as many documents.
+    private static final int MAX_WRITES_PER_COMMIT = 500;
+    private static final int WRITES_PER_SCORE = 3;
+    private static final int MAX_SCORES_PER_FLUSH =
+            (MAX_WRITES_PER_COMMIT - Difficulty.values().length) / WRITES_PER_SCORE;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 200;
+    private static final long OFFER_TIMEOUT_MILLIS = 1000;
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+    // How long an idle flusher sleeps; WAKE ends it early on close
+    private static final long IDLE_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Wakes the flusher to write what it has without waiting out the
+    // interval. If the queue is full it cannot be added, but then the
+    // flusher is busy anyway.
+    private static final ScoreWrite WAKE = new ScoreWrite(null, null, null, 0);
+
+    private final Firestore db;
+    private final ScoreJournal journal;
+    private final BlockingQueue<ScoreWrite> queue;
+    private final long flushIntervalNanos;
+    private final Thread flusher;
+    // Drains the queue at exit; removed again on close, so a closed queue
+    // is not kept reachable until then
+    private final Thread shutdownHook;
+    private volatile boolean closed;
+
+    private final LatencyHistogram flushLatency = new LatencyHistogram("score_flush");
+    private final LatencyHistogram writeDelay = new LatencyHistogram("score_write_delay");
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong journaled = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    // Scores the flusher is done with, written, journaled or dropped;
+    // guarded by itself
+    private final Object doneLock = new Object();
+    private long done;
+
+    public ScoreWriteQueue(Firestore db, int capacity, long flushIntervalMillis) {
+        this(db, capacity, flushIntervalMillis, null);
+    }
+
+    /**
+     * @param journal where scores go that cannot be written; null drops them
+     */
+    public ScoreWriteQueue(Firestore db, int capacity, long flushIntervalMillis, ScoreJournal journal) {
+        this.db = db;
+        this.journal = journal;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.flusher = new Thread(this::run, "score-writer");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+        this.shutdownHook = new Thread(this::close, "score-writer-drain");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Queues a score document and the user stats it implies.
+     * @throws Exception if the queue stays full for a second or is closed
+     */
+    public void enqueue(DocumentReference scoreRef, Map<String, Object> scoreData,
+                        String userId, int score) throws Exception {
+        if (closed) {
+            throw new Exception("Score queue is shut down");
+        }
+        ScoreWrite pending = new ScoreWrite(scoreRef, scoreData, userId, score);
+        if (!queue.offer(pending, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            throw new Exception("Score queue is full (" + queue.size() + " waiting)");
+        }
+        enqueued.incrementAndGet();
+    }
+
+    /**
+     * Writes out everything queued so far and waits until it is written,
+     * journaled or dropped, so a following read sees it if it could be
+     * written.
+     * @return false if that took longer than the timeout
+     */
+    public boolean awaitFlushed(long timeoutMillis) throws InterruptedException {
+        long target = enqueued.get();
+        queue.offer(WAKE);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (doneLock) {
+            while (done < target) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return false;
+                TimeUnit.NANOSECONDS.timedWait(doneLock, remaining);
+            }
+        }
+        return true;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public String getStats() {
+        return String.format("queued %d, depth %d, written %d, journaled %d, dropped %d, %d batches, "
+                        + "flush p50 %.1f ms p99 %.1f ms max %.1f ms, write delay p50 %.1f ms p99 %.1f ms",
+                enqueued.get(), getQueueDepth(), written.get(), journaled.get(), dropped.get(), batches.get(),
+                flushLatency.getValueAtPercentile(50) / 1e6, flushLatency.getValueAtPercentile(99) / 1e6,
+                flushLatency.getMax() / 1e6,
+                writeDelay.getValueAtPercentile(50) / 1e6, writeDelay.getValueAtPercentile(99) / 1e6);
+    }
+
+    /**
+     * Stops taking scores and waits for the queued ones to be written.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down, perhaps in this very hook
+        }
+        queue.offer(WAKE);
+        try {
+            flusher.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            System.err.println("⚠️  Score queue did not drain: " + getQueueDepth() + " scores unwritten");
+        }
+    }
+
+    private void run() {
+        List<ScoreWrite> pending = new ArrayList<>();
+        while (!closed || !queue.isEmpty()) {
+            try {
+                collect(pending);
+            } catch (InterruptedException e) {
+                // Nothing interrupts this thread on purpose; write what we have
+            }
+            if (!pending.isEmpty()) {
+                flush(pending);
+                pending.clear();
+            }
+        }
+    }
+
+    // Waits for a first score, then lingers up to one interval for more
+    private void collect(List<ScoreWrite> pending) throws InterruptedException {
+        long deadline = 0;
+        while (pending.size() < MAX_SCORES_PER_FLUSH) {
+            long wait = pending.isEmpty() ? IDLE_WAIT_NANOS : deadline - System.nanoTime();
+            if (wait <= 0) return;
+            ScoreWrite next = queue.poll(wait, TimeUnit.NANOSECONDS);
+            if (next == null || next == WAKE) {
+                if (pending.isEmpty() && !closed && next == null) continue;
+                return;
+            }
+            if (pending.isEmpty()) {
+                deadline = System.nanoTime() + flushIntervalNanos;
+            }
+            pending.add(next);
+        }
+    }
+
+    private void flush(List<ScoreWrite> pending) {
+        long start = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                ScoreWrite.commitAll(db, pending);
+                written.addAndGet(pending.size());
+                batches.incrementAndGet();
+                long end = System.nanoTime();
+                flushLatency.record(end - start);
+                for (ScoreWrite score : pending) {
+                    writeDelay.record(end - score.enqueuedNanos);
+                }
+                break;
+            } catch (Exception e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    System.err.println("❌ Failed to write " + pending.size() + " scores: " + e.getMessage());
+                    handOff(pending);
+                    break;
+                }
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+                } catch (InterruptedException interrupted) {
+                    // Retry straight away
+                }
+            }
+        }
+
+        synchronized (doneLock) {
+            done += pending.size();
+            doneLock.notifyAll();
+        }
+    }
+
+    // Scores that could not be written go to the journal, if there is one
+    private void handOff(List<ScoreWrite> failed) {
+        if (journal == null) {
+            dropped.addAndGet(failed.size());
+            return;
+        }
+        try {
+            journal.appendAll(failed);
+            journaled.addAndGet(failed.size());
+        } catch (IOException | RuntimeException e) {
+            dropped.addAndGet(failed.size());
+            System.err.println("❌ Failed to journal " + failed.size() + " scores: " + e.getMessage());
+        }
+    }
+}
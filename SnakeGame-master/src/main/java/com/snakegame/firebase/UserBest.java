@@ -0,0 +1,116 @@
+package com.snakegame.firebase;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The index behind the global leaderboard: {@code userBest/{userId}} holds
+ * each user's best score on any difficulty, with what the leaderboard shows
+ * of it. One document per user means the top N users are a plain
+ * {@code orderBy("score").limit(N)} query costing N reads, however many
+ * games the leaders have played.
+ *
+ * {@link ScoreWrite#commitAll} raises it with the scores it writes. A user
+ * with no document yet gets one built from their best stored score. Users who
+ * have not played since the index was introduced only get theirs from
+ * {@link #backfill}, which marks the index complete when done; until then the
+ * global leaderboard keeps reading raw scores. Scores without a difficulty
+ * are left out, as on the per-difficulty leaderboards.
+ */
+final class UserBest {
+    static final String COLLECTION = "userBest";
+    private static final int BACKFILL_PAGE_SIZE = 500;
+
+    private UserBest() {}
+
+    static DocumentReference ref(Firestore db, String userId) {
+        return db.collection(COLLECTION).document(userId);
+    }
+
+    static Query source(Firestore db, String userId) {
+        return db.collection("scores")
+            .whereEqualTo("userId", userId)
+            .orderBy("score", Query.Direction.DESCENDING)
+            .limit(1);
+    }
+
+    // Exists once the backfill has run
+    static DocumentReference completeMarker(Firestore db) {
+        return db.collection("meta").document(COLLECTION);
+    }
+
+    static Query top(Firestore db, int limit) {
+        return db.collection(COLLECTION)
+            .orderBy("score", Query.Direction.DESCENDING)
+            .limit(limit);
+    }
+
+    static Map<String, Object> document(String scoreId, Map<String, Object> scoreData) {
+        Map<String, Object> document = LeaderboardDocument.entry(scoreId, scoreData);
+        document.put("difficulty", scoreData.get("difficulty"));
+        return document;
+    }
+
+    /**
+     * Builds the index from every stored score: pages through {@code scores}
+     * keeping each user's best, then raises each user's document to it in a
+     * transaction, so scores written meanwhile are never lowered. Safe to run
+     * again. Marks the index complete at the end.
+     * @return how many users' documents were written
+     */
+    static int backfill(Firestore db) throws Exception {
+        Map<String, QueryDocumentSnapshot> best = new HashMap<>();
+        DocumentSnapshot last = null;
+        long scanned = 0;
+        while (true) {
+            Query page = db.collection("scores")
+                .select("userId", "userName", "avatarUrl", "score", "difficulty", "timestamp")
+                .orderBy(FieldPath.documentId())
+                .limit(BACKFILL_PAGE_SIZE);
+            if (last != null) {
+                page = page.startAfter(last);
+            }
+            QuerySnapshot snapshot = page.get().get();
+            for (QueryDocumentSnapshot score : snapshot.getDocuments()) {
+                String userId = score.getString("userId");
+                Long value = score.getLong("score");
+                if (userId == null || value == null || score.getString("difficulty") == null) continue;
+                QueryDocumentSnapshot current = best.get(userId);
+                if (current == null || value > current.getLong("score")) {
+                    best.put(userId, score);
+                }
+            }
+            scanned += snapshot.size();
+            if (snapshot.size() < BACKFILL_PAGE_SIZE) break;
+            last = snapshot.getDocuments().get(snapshot.size() - 1);
+        }
+        System.out.println("📊 Scanned " + scanned + " scores of " + best.size() + " users");
+
+        int written = 0;
+        for (QueryDocumentSnapshot score : best.values()) {
+            DocumentReference ref = ref(db, score.getString("userId"));
+            long value = score.getLong("score");
+            boolean raised = db.runTransaction(transaction -> {
+                Long current = transaction.get(ref).get().getLong("score");
+                if (current != null && current >= value) return false;
+                transaction.set(ref, document(score.getId(), score.getData()));
+                return true;
+            }).get();
+            if (raised) written++;
+        }
+
+        Map<String, Object> marker = new HashMap<>();
+        marker.put("backfilledAt", new Date());
+        completeMarker(db).set(marker).get();
+        return written;
+    }
+}
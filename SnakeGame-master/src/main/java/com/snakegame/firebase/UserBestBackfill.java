@@ -0,0 +1,27 @@
+package com.snakegame.firebase;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.firebase.cloud.FirestoreClient;
+
+/**
+ * One-off job that builds the {@link UserBest} index from the scores stored
+ * before it existed. The global leaderboard reads raw scores until it has
+ * run. Uses the same credentials as the game.
+ *
+ * Usage: UserBestBackfill
+ */
+public class UserBestBackfill {
+
+    public static void main(String[] args) throws Exception {
+        FirebaseConfig.initialize();
+        if (!FirebaseConfig.isAvailable()) {
+            throw new IllegalStateException("Firebase is not available; place serviceAccountKey.json in the project root");
+        }
+        Firestore db = FirestoreClient.getFirestore(FirebaseConfig.getApp());
+
+        long start = System.nanoTime();
+        int written = UserBest.backfill(db);
+        System.out.printf("✅ userBest backfilled: %d users written in %.1f s%n",
+                written, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,153 @@
+package com.snakegame.sim;
+
+import com.snakegame.models.Difficulty;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo runner for balancing difficulties: plays many seeded games in
+ * parallel on a fork-join pool and prints score, length and duration stats.
+ * Game i always uses seed + i, so results do not depend on the thread count.
+ *
+ * Games still running after maxTicks are cut off, so a policy that circles
+ * forever cannot stall the batch.
+ *
+ * Usage: BatchSimulator [games=N] [difficulty=EASY|MEDIUM|HARD] [policy=greedy|random]
+ *                       [threads=N] [columns=N] [rows=N] [specialFoodChance=N]
+ *                       [maxTicks=N] [seed=N]
+ */
+public class BatchSimulator {
+
+    public static void main(String[] args) throws Exception {
+        int games = 10_000;
+        Difficulty difficulty = Difficulty.EASY;
+        String policyName = "greedy";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int columns = 40;
+        int rows = 30;
+        int specialFoodChance = 80;
+        long maxTicks = 100_000;
+        long seed = 1;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "games": games = Integer.parseInt(value); break;
+                case "difficulty": difficulty = Difficulty.valueOf(value.toUpperCase()); break;
+                case "policy": policyName = value; break;
+                case "threads": threads = Integer.parseInt(value); break;
+                case "columns": columns = Integer.parseInt(value); break;
+                case "rows": rows = Integer.parseInt(value); break;
+                case "specialFoodChance": specialFoodChance = Integer.parseInt(value); break;
+                case "maxTicks": maxTicks = Long.parseLong(value); break;
+                case "seed": seed = Long.parseLong(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+
+        Result result = run(games, difficulty, policyName, threads,
+                columns, rows, specialFoodChance, maxTicks, seed);
+        result.print(difficulty);
+    }
+
+    public static Result run(int games, Difficulty difficulty, String policyName, int threads,
+                             int columns, int rows, int specialFoodChance,
+                             long maxTicks, long seed) throws Exception {
+        int[] scores = new int[games];
+        int[] lengths = new int[games];
+        long[] ticks = new long[games];
+        int pointsPerFood = difficulty.getPointsPerFood();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            // Each game writes only its own slot, so the arrays need no locking
+            pool.submit(() -> IntStream.range(0, games).parallel().forEach(i -> {
+                GameSimulation game = new GameSimulation(columns, rows,
+                        pointsPerFood, specialFoodChance, seed + i);
+                Policy policy = createPolicy(policyName, seed + i);
+                while (!game.isGameOver() && game.getTicks() < maxTicks) {
+                    game.step(policy.choose(game));
+                }
+                scores[i] = game.getScore();
+                lengths[i] = game.getSnake().size();
+                ticks[i] = game.getTicks();
+            })).get();
+        } finally {
+            pool.shutdown();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        return new Result(scores, lengths, ticks, threads, elapsed);
+    }
+
+    private static Policy createPolicy(String name, long seed) {
+        switch (name) {
+            case "greedy": return new GreedyPolicy();
+            case "random": return new RandomPolicy(seed);
+            default: throw new IllegalArgumentException("Unknown policy: " + name);
+        }
+    }
+
+    public static class Result {
+        private final int[] scores;
+        private final int[] lengths;
+        private final long[] ticks;
+        private final int threads;
+        private final double elapsedSeconds;
+
+        Result(int[] scores, int[] lengths, long[] ticks, int threads, double elapsedSeconds) {
+            this.scores = scores;
+            this.lengths = lengths;
+            this.ticks = ticks;
+            this.threads = threads;
+            this.elapsedSeconds = elapsedSeconds;
+        }
+
+        public double gamesPerSecond() {
+            return scores.length / elapsedSeconds;
+        }
+
+        public double ticksPerSecond() {
+            return Arrays.stream(ticks).sum() / elapsedSeconds;
+        }
+
+        void print(Difficulty difficulty) {
+            double[] scoreValues = Arrays.stream(scores).asDoubleStream().toArray();
+            double[] finalScores = Arrays.stream(scores).map(difficulty::calculateScore).asDoubleStream().toArray();
+            double[] lengthValues = Arrays.stream(lengths).asDoubleStream().toArray();
+            double[] tickValues = Arrays.stream(ticks).asDoubleStream().toArray();
+            // Real play time at this difficulty's tick rate
+            double[] seconds = Arrays.stream(ticks).mapToDouble(t -> (double) t / difficulty.getSpeed()).toArray();
+
+            System.out.printf("%d games on %d threads in %.2f s: %.0f games/s, %.2f M ticks/s%n",
+                    scores.length, threads, elapsedSeconds, gamesPerSecond(), ticksPerSecond() / 1e6);
+            System.out.printf("%-12s %10s %10s %10s %10s %10s%n", "", "mean", "p50", "p90", "p99", "max");
+            printRow("base score", scoreValues);
+            printRow("final score", finalScores);
+            printRow("length", lengthValues);
+            printRow("ticks", tickValues);
+            printRow("seconds", seconds);
+        }
+
+        private static void printRow(String label, double[] values) {
+            Arrays.sort(values);
+            double mean = Arrays.stream(values).average().orElse(0);
+            System.out.printf("%-12s %10.1f %10.1f %10.1f %10.1f %10.1f%n", label, mean,
+                    percentile(values, 0.50), percentile(values, 0.90),
+                    percentile(values, 0.99), values.length == 0 ? 0 : values[values.length - 1]);
+        }
+
+        private static double percentile(double[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))];
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.snakegame.sim;
+
+/**
+ * Set of empty board cells, indexed by row * columns + column, with O(1)
+ * add, remove and uniform sampling. The free cells are packed into the front
+ * of an array; removing one swaps the last entry into its slot.
+ */
+public class FreeCells {
+    private final int[] cells;
+    private final int[] slots;
+    private int size;
+
+    public FreeCells(int cellCount) {
+        cells = new int[cellCount];
+        slots = new int[cellCount];
+        reset();
+    }
+
+    /**
+     * Marks every cell free again, reusing the arrays.
+     */
+    public void reset() {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+            slots[i] = i;
+        }
+        size = cells.length;
+    }
+
+    public void add(int cell) {
+        if (slots[cell] >= 0) return;
+
+        cells[size] = cell;
+        slots[cell] = size;
+        size++;
+    }
+
+    public void remove(int cell) {
+        int slot = slots[cell];
+        if (slot < 0) return;
+
+        int last = cells[--size];
+        cells[slot] = last;
+        slots[last] = slot;
+        slots[cell] = -1;
+    }
+
+    public boolean contains(int cell) {
+        return slots[cell] >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a uniformly chosen free cell, or -1 if the board is full
+     */
+    public int sample(GameRandom random) {
+        return size == 0 ? -1 : cells[random.nextInt(size)];
+    }
+
+    /**
+     * Samples uniformly from the free cells other than {@code excluded}, without
+     * modifying the set. Used to keep two foods from landing on the same cell.
+     * @return a free cell, or -1 if none is left
+     */
+    public int sampleExcluding(GameRandom random, int excluded) {
+        if (excluded < 0 || !contains(excluded)) {
+            return sample(random);
+        }
+        if (size <= 1) {
+            return -1;
+        }
+
+        // Draw from size - 1 slots, reading the excluded slot as the last entry
+        int slot = random.nextInt(size - 1);
+        return slot == slots[excluded] ? cells[size - 1] : cells[slot];
+    }
+}
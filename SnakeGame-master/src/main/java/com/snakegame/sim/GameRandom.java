@@ -0,0 +1,81 @@
+package com.snakegame.sim;
+
+/**
+ * Seeded, splittable random generator for everything random in a game, so a
+ * seed fully determines it. This is the SplitMix64 algorithm behind
+ * {@link java.util.SplittableRandom}, but mutable: {@link #reset(long)} and
+ * {@link #split(GameRandom)} reuse existing instances, so starting a new game
+ * allocates nothing.
+ *
+ * Each consumer (food placement, special food rolls) gets its own split
+ * stream, so a change in how often one draws does not shift the other.
+ */
+public class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    private long gamma;
+
+    public GameRandom(long seed) {
+        reset(seed);
+    }
+
+    public void reset(long seed) {
+        this.seed = seed;
+        this.gamma = GOLDEN_GAMMA;
+    }
+
+    /**
+     * Re-seeds {@code child} as an independent stream derived from this one,
+     * advancing this generator.
+     */
+    public void split(GameRandom child) {
+        child.seed = nextLong();
+        child.gamma = mixGamma(nextSeed());
+    }
+
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * @return a uniformly distributed int from 0 (inclusive) to bound (exclusive)
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        // Lemire's multiply-and-shift with rejection of the biased low range
+        long bits = nextLong() >>> 32;
+        long product = bits * bound;
+        long low = product & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                bits = nextLong() >>> 32;
+                product = bits * bound;
+                low = product & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // Odd gammas with enough bit transitions give well-spread streams
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int transitions = Long.bitCount(z ^ (z >>> 1));
+        return transitions < 24 ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -0,0 +1,220 @@
+package com.snakegame.sim;
+
+import com.snakegame.Direction;
+
+/**
+ * Complete game rules on a grid of cells, with no display attached. The
+ * Swing panel and headless runners both create one of these and call
+ * {@link #step(Direction)} once per logic tick.
+ *
+ * Rules: eating normal food grows the snake, adds {@code pointsPerFood} to the
+ * base score and respawns it on a free cell. Whenever no special food is on the
+ * board, each spawn rolls {@code specialFoodChance} percent for one. Eating the
+ * special food is reported to the host, which may award a bonus through
+ * {@link #addBonus(int)}. Leaving the board or running into the body ends the game.
+ *
+ * All randomness comes from one {@link GameRandom} seeded in {@link #reset(long)},
+ * split into a stream for food placement and one for special food, so the
+ * seed and the turns taken fully determine a game. A {@link ReplayRecorder}
+ * set with {@link #setRecorder(ReplayRecorder)} captures those turns, and any
+ * bonus awarded, for {@link Replayer}.
+ */
+public class GameSimulation {
+    // Bit flags returned by step()
+    public static final int ATE_FOOD = 1;
+    public static final int ATE_SPECIAL_FOOD = 2;
+    public static final int GAME_OVER = 4;
+
+    private final int columns;
+    private final int rows;
+    private final int pointsPerFood;
+    private final int specialFoodChance;
+    private final GameRandom random = new GameRandom(0);
+    private final GameRandom foodRandom = new GameRandom(0);
+    private final GameRandom specialFoodRandom = new GameRandom(0);
+    private final SnakeBody snake;
+    private ReplayRecorder recorder;
+
+    private long seed;
+
+    private int foodCell = -1;
+    private int specialFoodCell = -1;
+    private int score;
+    private long ticks;
+    private boolean gameOver;
+
+    public GameSimulation(int columns, int rows, int pointsPerFood, int specialFoodChance, long seed) {
+        this.columns = columns;
+        this.rows = rows;
+        this.pointsPerFood = pointsPerFood;
+        this.specialFoodChance = specialFoodChance;
+        this.snake = new SnakeBody(columns, rows, columns / 2, rows / 2);
+        reset(seed);
+    }
+
+    /**
+     * Starts a new game on the same board without allocating, as if freshly
+     * constructed with this seed.
+     */
+    public void reset(long seed) {
+        this.seed = seed;
+        random.reset(seed);
+        random.split(foodRandom);
+        random.split(specialFoodRandom);
+        snake.reset(columns / 2, rows / 2);
+        foodCell = -1;
+        specialFoodCell = -1;
+        score = 0;
+        ticks = 0;
+        gameOver = false;
+
+        spawnFood();
+        rollSpecialFood();
+
+        if (recorder != null) {
+            recorder.begin(this);
+        }
+    }
+
+    /**
+     * Records this game's inputs from now on, starting a new recording; set
+     * it before the first step. Null stops recording.
+     */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+        if (recorder != null) {
+            recorder.begin(this);
+        }
+    }
+
+    /**
+     * Advances the game by one tick.
+     * @param turn direction to turn to before moving, or null to keep going;
+     *             a turn straight back into the body is ignored
+     * @return a combination of {@link #ATE_FOOD}, {@link #ATE_SPECIAL_FOOD}
+     *         and {@link #GAME_OVER}
+     */
+    public int step(Direction turn) {
+        if (gameOver) return GAME_OVER;
+
+        Direction current = snake.getDirection();
+        if (turn != null && turn != current && !turn.isOpposite(current)) {
+            if (recorder != null) {
+                recorder.recordTurn(ticks, turn);
+            }
+            snake.setDirection(turn);
+        }
+        ticks++;
+
+        snake.move();
+
+        if (!snake.isHeadOnBoard() || snake.checkSelfCollision()) {
+            gameOver = true;
+            return GAME_OVER;
+        }
+
+        int headCell = snake.headCell();
+        int events = 0;
+
+        // Special food takes priority when both could be hit
+        if (headCell == specialFoodCell) {
+            specialFoodCell = -1;
+            rollSpecialFood();
+            events |= ATE_SPECIAL_FOOD;
+        } else if (headCell == foodCell) {
+            snake.grow();
+            score += pointsPerFood;
+            if (!spawnFood()) {
+                // The snake fills the board; nothing left to eat
+                gameOver = true;
+                return ATE_FOOD | GAME_OVER;
+            }
+            rollSpecialFood();
+            events |= ATE_FOOD;
+        }
+
+        return events;
+    }
+
+    /**
+     * Adds points awarded outside the rules, such as for a correct answer.
+     * Recorded against the number of ticks played so far.
+     */
+    public void addBonus(int points) {
+        if (recorder != null) {
+            recorder.recordBonus(ticks, points);
+        }
+        score += points;
+    }
+
+    private boolean spawnFood() {
+        foodCell = snake.getFreeCells().sampleExcluding(foodRandom, specialFoodCell);
+        return foodCell >= 0;
+    }
+
+    private void rollSpecialFood() {
+        if (specialFoodCell >= 0 || specialFoodRandom.nextInt(100) >= specialFoodChance) {
+            return;
+        }
+        specialFoodCell = snake.getFreeCells().sampleExcluding(specialFoodRandom, foodCell);
+    }
+
+    public SnakeBody getSnake() {
+        return snake;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getPointsPerFood() {
+        return pointsPerFood;
+    }
+
+    public int getSpecialFoodChance() {
+        return specialFoodChance;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getFoodColumn() {
+        return foodCell % columns;
+    }
+
+    public int getFoodRow() {
+        return foodCell / columns;
+    }
+
+    public boolean hasSpecialFood() {
+        return specialFoodCell >= 0;
+    }
+
+    public int getSpecialFoodColumn() {
+        return specialFoodCell % columns;
+    }
+
+    public int getSpecialFoodRow() {
+        return specialFoodCell / columns;
+    }
+
+    /**
+     * @return the base score, before the difficulty multiplier
+     */
+    public int getScore() {
+        return score;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+}
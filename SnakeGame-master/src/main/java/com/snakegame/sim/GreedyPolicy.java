@@ -0,0 +1,40 @@
+package com.snakegame.sim;
+
+import com.snakegame.Direction;
+
+/**
+ * Heads for the normal food along the shortest Manhattan path, skipping any
+ * move that would immediately leave the board or hit the body. Ignores the
+ * special food, whose bonus depends on a question only a player can answer.
+ */
+public class GreedyPolicy implements Policy {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Override
+    public Direction choose(GameSimulation game) {
+        SnakeBody snake = game.getSnake();
+        Direction current = snake.getDirection();
+        int headColumn = snake.headColumn();
+        int headRow = snake.headRow();
+
+        Direction best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (Direction direction : DIRECTIONS) {
+            if (direction.isOpposite(current)) continue;
+
+            int column = headColumn + direction.dx;
+            int row = headRow + direction.dy;
+            if (column < 0 || column >= game.getColumns() || row < 0 || row >= game.getRows()
+                    || snake.isOccupied(column, row)) {
+                continue;
+            }
+
+            int distance = Math.abs(column - game.getFoodColumn()) + Math.abs(row - game.getFoodRow());
+            if (distance < bestDistance || (distance == bestDistance && direction == current)) {
+                best = direction;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+}
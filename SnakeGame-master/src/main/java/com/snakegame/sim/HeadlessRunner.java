@@ -0,0 +1,75 @@
+package com.snakegame.sim;
+
+import com.snakegame.models.Difficulty;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Plays back-to-back games with {@link GreedyPolicy} on the calling thread and
+ * reports simulation throughput. No display is needed.
+ *
+ * Also reports how many bytes the thread allocated per million ticks, read
+ * from the JVM's per-thread allocation counter after a one-second warmup.
+ * One game is reset in place between rounds, so in steady state this should
+ * be zero; TickAllocationTest holds it to that.
+ *
+ * Usage: HeadlessRunner [seconds] [columns] [rows] [EASY|MEDIUM|HARD]
+ */
+public class HeadlessRunner {
+    private static final int SPECIAL_FOOD_CHANCE = 80;
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    // Games still running after this many ticks are cut off, as in
+    // BatchSimulator, so a policy that circles forever cannot stall the run
+    private static final long MAX_TICKS = 100_000;
+
+    public static void main(String[] args) {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int columns = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        Difficulty difficulty = args.length > 3 ? Difficulty.valueOf(args[3]) : Difficulty.EASY;
+
+        Policy policy = new GreedyPolicy();
+        GameSimulation game = new GameSimulation(columns, rows,
+                difficulty.getPointsPerFood(), SPECIAL_FOOD_CHANCE, 0);
+        long seed = 1;
+
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) {
+            game.reset(seed++);
+            playOut(game, policy);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        long ticks = 0;
+        long totalScore = 0;
+        int games = 0;
+
+        while (System.nanoTime() < deadline) {
+            game.reset(seed++);
+            playOut(game, policy);
+            ticks += game.getTicks();
+            totalScore += game.getScore();
+            games++;
+        }
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%d games, %d ticks in %.2f s%n", games, ticks, elapsed);
+        System.out.printf("%.2f M ticks/s, mean base score %.1f%n",
+                ticks / elapsed / 1e6, (double) totalScore / games);
+        System.out.printf("%.1f bytes allocated per 1M ticks%n", allocated * 1e6 / ticks);
+    }
+
+    private static void playOut(GameSimulation game, Policy policy) {
+        while (!game.isGameOver() && game.getTicks() < MAX_TICKS) {
+            game.step(policy.choose(game));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.snakegame.sim;
+
+import com.snakegame.Direction;
+
+/**
+ * Chooses the snake's input for each tick of a headless game.
+ */
+public interface Policy {
+    /**
+     * @return the direction to turn to this tick, or null to keep going
+     */
+    Direction choose(GameSimulation game);
+}
@@ -0,0 +1,39 @@
+package com.snakegame.sim;
+
+import com.snakegame.Direction;
+
+import java.util.Random;
+
+/**
+ * Picks uniformly among the moves that do not immediately leave the board or
+ * hit the body, ignoring the food. A baseline for how far luck alone gets.
+ */
+public class RandomPolicy implements Policy {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Random random;
+    private final Direction[] safe = new Direction[DIRECTIONS.length];
+
+    public RandomPolicy(long seed) {
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public Direction choose(GameSimulation game) {
+        SnakeBody snake = game.getSnake();
+        Direction current = snake.getDirection();
+
+        int count = 0;
+        for (Direction direction : DIRECTIONS) {
+            if (direction.isOpposite(current)) continue;
+
+            int column = snake.headColumn() + direction.dx;
+            int row = snake.headRow() + direction.dy;
+            if (column >= 0 && column < game.getColumns() && row >= 0 && row < game.getRows()
+                    && !snake.isOccupied(column, row)) {
+                safe[count++] = direction;
+            }
+        }
+        return count == 0 ? null : safe[random.nextInt(count)];
+    }
+}
@@ -0,0 +1,85 @@
+package com.snakegame.sim;
+
+/**
+ * Everything needed to replay a game exactly: the board and rules, the seed,
+ * and the inputs as a compact byte stream, plus the outcome to check against.
+ *
+ * Events are ordered by tick. Each one starts with an unsigned varint of
+ * {@code (ticksSincePreviousEvent << 3) | kind}, where kind is a
+ * {@link com.snakegame.Direction} ordinal for a turn, or {@link #BONUS}
+ * followed by a zigzag varint of the points. A turn recorded at tick t was
+ * applied by the step that took the game from t to t + 1 ticks; a bonus at
+ * tick t was added after t steps. Most games need a byte or two per turn.
+ */
+public final class Replay {
+    static final int KIND_BITS = 3;
+    static final int BONUS = 4;
+
+    private final int columns;
+    private final int rows;
+    private final int pointsPerFood;
+    private final int specialFoodChance;
+    private final long seed;
+    private final long endTick;
+    private final int finalScore;
+    private final int eventCount;
+    private final byte[] events;
+
+    public Replay(int columns, int rows, int pointsPerFood, int specialFoodChance, long seed,
+                  long endTick, int finalScore, int eventCount, byte[] events) {
+        this.columns = columns;
+        this.rows = rows;
+        this.pointsPerFood = pointsPerFood;
+        this.specialFoodChance = specialFoodChance;
+        this.seed = seed;
+        this.endTick = endTick;
+        this.finalScore = finalScore;
+        this.eventCount = eventCount;
+        this.events = events;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getPointsPerFood() {
+        return pointsPerFood;
+    }
+
+    public int getSpecialFoodChance() {
+        return specialFoodChance;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return how many ticks the recorded game ran
+     */
+    public long getEndTick() {
+        return endTick;
+    }
+
+    /**
+     * @return the base score the recorded game ended with
+     */
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * @return the encoded events; not copied, so do not modify
+     */
+    public byte[] getEvents() {
+        return events;
+    }
+}
@@ -0,0 +1,60 @@
+package com.snakegame.sim;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of replay archive files, written by {@link ReplayFileWriter} and
+ * read by {@link ReplayFileReader}. Multi-byte fields are big-endian.
+ *
+ * <pre>
+ * file   := magic "SNKR" | version:u16 | reserved:u16 | record*
+ * record := bodyLength:i32 | body | crc32c(body):i32
+ * body   := seed:i64 | columns:u16 | rows:u16 | difficulty:u8 | specialFoodChance:u8
+ *           | pointsPerFood:u16 | endTick:varint | finalScore:zigzag varint
+ *           | eventCount:varint | userIdLength:varint | userId:utf8
+ *           | events (the rest of the body, in the {@link Replay} encoding)
+ * </pre>
+ *
+ * Records are only ever appended, so a crash can leave at most one torn
+ * record at the end; readers stop there. A record whose checksum does not
+ * match is skipped and counted, without losing the records after it.
+ */
+final class ReplayFile {
+    static final int MAGIC = 0x534E4B52; // "SNKR"
+    static final short VERSION = 1;
+    static final int FILE_HEADER_SIZE = 8;
+
+    // Offsets within a record body
+    static final int SEED = 0;
+    static final int COLUMNS = 8;
+    static final int ROWS = 10;
+    static final int DIFFICULTY = 12;
+    static final int SPECIAL_FOOD_CHANCE = 13;
+    static final int POINTS_PER_FOOD = 14;
+    static final int VARIABLE_FIELDS = 16;
+
+    static final int LENGTH_SIZE = 4;
+    static final int CRC_SIZE = 4;
+    // A body with every varint at its shortest and no user id or events
+    static final int MIN_BODY_SIZE = VARIABLE_FIELDS + 4;
+
+    private ReplayFile() {
+    }
+
+    static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    static int unzigzag(long value) {
+        int bits = (int) value;
+        return (bits >>> 1) ^ -(bits & 1);
+    }
+}
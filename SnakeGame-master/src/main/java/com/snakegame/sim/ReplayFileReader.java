@@ -0,0 +1,268 @@
+package com.snakegame.sim;
+
+import com.snakegame.models.Difficulty;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads a replay archive in the {@link ReplayFile} format by mapping it into
+ * memory and walking it as a cursor: {@link #next()} moves to the next intact
+ * record and the getters read its fields straight from the mapping, so
+ * scanning an archive creates no objects per replay. {@link #getUserId()} and
+ * {@link #toReplay()} copy, for callers that need to keep a record.
+ *
+ * One mapping covers the whole file, which limits archives to 2 GB.
+ *
+ * Usage: ReplayFileReader file   (replays and verifies every record)
+ */
+public class ReplayFileReader implements Closeable {
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    // Reused view over the current record's events, and for checksums
+    private final ByteBuffer view;
+    private final CRC32C crc = new CRC32C();
+
+    private int nextRecord = ReplayFile.FILE_HEADER_SIZE;
+    private int body = -1;
+    private long endTick;
+    private int finalScore;
+    private int eventCount;
+    private int userIdAt;
+    private int userIdLength;
+    private int eventsAt;
+    private int eventsEnd;
+    // End of the varint last read by readVarint
+    private int varintEnd;
+
+    private long corruptRecords;
+    private long trailingBytes;
+
+    public ReplayFileReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Replay archive too large to map: " + path);
+            }
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            checkHeader(map, path);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        view = map.duplicate();
+    }
+
+    /**
+     * Moves to the next record whose checksum matches, skipping damaged ones.
+     * @return false at the end of the archive, or at a torn final record
+     */
+    public boolean next() {
+        int limit = map.limit();
+        while (nextRecord + ReplayFile.LENGTH_SIZE <= limit) {
+            int start = nextRecord;
+            int bodyLength = map.getInt(start);
+            long end = (long) start + ReplayFile.LENGTH_SIZE + bodyLength + ReplayFile.CRC_SIZE;
+            if (bodyLength < ReplayFile.MIN_BODY_SIZE || end > limit) {
+                // A torn append, or a length too damaged to find the next record
+                break;
+            }
+            nextRecord = (int) end;
+
+            int bodyAt = start + ReplayFile.LENGTH_SIZE;
+            int bodyEnd = bodyAt + bodyLength;
+            view.clear();
+            view.position(bodyAt).limit(bodyEnd);
+            crc.reset();
+            crc.update(view);
+            if ((int) crc.getValue() != map.getInt(bodyEnd)) {
+                corruptRecords++;
+                continue;
+            }
+
+            int position = bodyAt + ReplayFile.VARIABLE_FIELDS;
+            endTick = readVarint(position);
+            position = varintEnd;
+            finalScore = ReplayFile.unzigzag(readVarint(position));
+            position = varintEnd;
+            eventCount = (int) readVarint(position);
+            position = varintEnd;
+            userIdLength = (int) readVarint(position);
+            userIdAt = varintEnd;
+            eventsAt = userIdAt + userIdLength;
+            eventsEnd = bodyEnd;
+            if (eventsAt > bodyEnd) {
+                corruptRecords++;
+                continue;
+            }
+            body = bodyAt;
+            return true;
+        }
+        trailingBytes = limit - nextRecord;
+        body = -1;
+        return false;
+    }
+
+    public long getSeed() {
+        return map.getLong(body + ReplayFile.SEED);
+    }
+
+    public int getColumns() {
+        return map.getShort(body + ReplayFile.COLUMNS) & 0xFFFF;
+    }
+
+    public int getRows() {
+        return map.getShort(body + ReplayFile.ROWS) & 0xFFFF;
+    }
+
+    public Difficulty getDifficulty() {
+        return DIFFICULTIES[map.get(body + ReplayFile.DIFFICULTY)];
+    }
+
+    public int getSpecialFoodChance() {
+        return map.get(body + ReplayFile.SPECIAL_FOOD_CHANCE);
+    }
+
+    public int getPointsPerFood() {
+        return map.getShort(body + ReplayFile.POINTS_PER_FOOD) & 0xFFFF;
+    }
+
+    public long getEndTick() {
+        return endTick;
+    }
+
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * @return the player's id, decoded into a new string
+     */
+    public String getUserId() {
+        byte[] bytes = new byte[userIdLength];
+        view.clear();
+        view.position(userIdAt);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the current record's encoded events, as a view that is reused
+     *         by the next call
+     */
+    public ByteBuffer events() {
+        view.clear();
+        view.position(eventsAt).limit(eventsEnd);
+        return view;
+    }
+
+    /**
+     * Replays the current record into {@code game}, which must have its board
+     * size and rules.
+     */
+    public void playInto(GameSimulation game) {
+        Replayer.playInto(game, getSeed(), endTick, events());
+    }
+
+    /**
+     * @return a copy of the current record that outlives the cursor
+     */
+    public Replay toReplay() {
+        ByteBuffer events = events();
+        byte[] copy = new byte[events.remaining()];
+        events.get(copy);
+        return new Replay(getColumns(), getRows(), getPointsPerFood(), getSpecialFoodChance(),
+                getSeed(), endTick, finalScore, eventCount, copy);
+    }
+
+    /**
+     * @return records skipped so far because their checksum did not match
+     */
+    public long getCorruptRecords() {
+        return corruptRecords;
+    }
+
+    /**
+     * @return bytes after the last whole record, once {@link #next()} has
+     *         returned false; non-zero after a torn append
+     */
+    public long getTrailingBytes() {
+        return trailingBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static void checkHeader(ByteBuffer map, Path path) throws IOException {
+        if (map.limit() < ReplayFile.FILE_HEADER_SIZE || map.getInt(0) != ReplayFile.MAGIC) {
+            throw new IOException("Not a replay archive: " + path);
+        }
+        if (map.getShort(4) != ReplayFile.VERSION) {
+            throw new IOException("Unsupported replay archive version " + map.getShort(4) + ": " + path);
+        }
+    }
+
+    private long readVarint(int position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = map.get(position++);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        varintEnd = position;
+        return value;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: ReplayFileReader file");
+        }
+        Path path = Paths.get(args[0]);
+        long records = 0;
+        long ticks = 0;
+        long mismatches = 0;
+        GameSimulation game = null;
+
+        long start = System.nanoTime();
+        try (ReplayFileReader reader = new ReplayFileReader(path)) {
+            while (reader.next()) {
+                if (game == null || game.getColumns() != reader.getColumns()
+                        || game.getRows() != reader.getRows()
+                        || game.getPointsPerFood() != reader.getPointsPerFood()
+                        || game.getSpecialFoodChance() != reader.getSpecialFoodChance()) {
+                    game = new GameSimulation(reader.getColumns(), reader.getRows(),
+                            reader.getPointsPerFood(), reader.getSpecialFoodChance(), reader.getSeed());
+                }
+                reader.playInto(game);
+                records++;
+                ticks += game.getTicks();
+                if (game.getTicks() != reader.getEndTick() || game.getScore() != reader.getFinalScore()) {
+                    mismatches++;
+                }
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d replays, %d mismatches, %d corrupt, %d trailing bytes%n",
+                    records, mismatches, reader.getCorruptRecords(), reader.getTrailingBytes());
+            System.out.printf("%d ticks replayed in %.2f s, %.2f M ticks/s%n",
+                    ticks, elapsed, ticks / elapsed / 1e6);
+        }
+    }
+}
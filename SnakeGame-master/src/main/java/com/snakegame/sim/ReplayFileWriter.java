@@ -0,0 +1,176 @@
+package com.snakegame.sim;
+
+import com.snakegame.models.Difficulty;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Appends replays to an archive file in the {@link ReplayFile} format.
+ * Records are encoded into one reusable buffer and written to the channel
+ * once it holds {@link #FLUSH_BYTES}, on {@link #flush()} and on close, so
+ * archiving many games costs one write call per batch rather than per game.
+ *
+ * Not thread-safe; give each writer thread its own file or synchronize.
+ */
+public class ReplayFileWriter implements Closeable {
+    public static final int FLUSH_BYTES = 64 * 1024;
+    // Read size when walking an existing archive for its last whole record
+    private static final int SCAN_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer buffer = ByteBuffer.allocate(FLUSH_BYTES * 2);
+    private long recordCount;
+
+    /**
+     * Opens {@code path} for appending, creating it with a file header if it
+     * does not exist yet. A torn record left at the end by a crash is cut
+     * off, so new records are not appended after it; so is a torn header,
+     * which holds no records.
+     * @throws IOException if the file exists but is not a replay archive
+     */
+    public ReplayFileWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < ReplayFile.FILE_HEADER_SIZE) {
+                // Empty, or torn inside the header by a crash right after
+                // it was created: start it over
+                if (channel.size() > 0) {
+                    channel.truncate(0);
+                }
+                buffer.putInt(ReplayFile.MAGIC).putShort(ReplayFile.VERSION).putShort((short) 0);
+            } else {
+                long complete = completeLength(channel, path);
+                if (complete < channel.size()) {
+                    channel.truncate(complete);
+                }
+            }
+            channel.position(channel.size());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Buffers one replay, writing out the batch if it is full.
+     */
+    public void append(Replay replay, Difficulty difficulty, String userId) throws IOException {
+        byte[] user = userId == null ? new byte[0] : userId.getBytes(StandardCharsets.UTF_8);
+        byte[] events = replay.getEvents();
+        // Fixed fields, four varints of at most 10 bytes each, user id, events
+        int maxBody = ReplayFile.VARIABLE_FIELDS + 40 + user.length + events.length;
+        ensureCapacity(ReplayFile.LENGTH_SIZE + maxBody + ReplayFile.CRC_SIZE);
+
+        int lengthAt = buffer.position();
+        buffer.position(lengthAt + ReplayFile.LENGTH_SIZE);
+        int bodyAt = buffer.position();
+        buffer.putLong(replay.getSeed())
+                .putShort((short) replay.getColumns())
+                .putShort((short) replay.getRows())
+                .put((byte) difficulty.ordinal())
+                .put((byte) replay.getSpecialFoodChance())
+                .putShort((short) replay.getPointsPerFood());
+        ReplayFile.putVarint(buffer, replay.getEndTick());
+        ReplayFile.putVarint(buffer, ReplayFile.zigzag(replay.getFinalScore()));
+        ReplayFile.putVarint(buffer, replay.getEventCount());
+        ReplayFile.putVarint(buffer, user.length);
+        buffer.put(user).put(events);
+        int bodyLength = buffer.position() - bodyAt;
+        buffer.putInt(lengthAt, bodyLength);
+
+        crc.reset();
+        crc.update(buffer.array(), bodyAt, bodyLength);
+        buffer.putInt((int) crc.getValue());
+        recordCount++;
+
+        if (buffer.position() >= FLUSH_BYTES) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes out buffered records. Does not force them to the disk.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * @return replays appended through this writer
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return the length of the archive up to the end of its last whole
+     *         record, so a torn one can be cut off. Walks the length fields
+     *         through plain reads of {@link #SCAN_BYTES} at a time rather than
+     *         a mapping, which would pin the file (Windows cannot truncate a
+     *         mapped file) until the garbage collector released it.
+     */
+    private static long completeLength(FileChannel channel, Path path) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(ReplayFile.FILE_HEADER_SIZE);
+        readFrom(channel, header, 0);
+        ReplayFileReader.checkHeader(header, path);
+
+        ByteBuffer window = ByteBuffer.allocate(SCAN_BYTES).limit(0);
+        long windowAt = 0;
+        long position = ReplayFile.FILE_HEADER_SIZE;
+        while (position + ReplayFile.LENGTH_SIZE <= size) {
+            if (position < windowAt || position + ReplayFile.LENGTH_SIZE > windowAt + window.limit()) {
+                readFrom(channel, window, position);
+                windowAt = position;
+            }
+            int bodyLength = window.getInt((int) (position - windowAt));
+            long end = position + ReplayFile.LENGTH_SIZE + bodyLength + ReplayFile.CRC_SIZE;
+            if (bodyLength < ReplayFile.MIN_BODY_SIZE || end > size) {
+                break;
+            }
+            position = end;
+        }
+        return position;
+    }
+
+    // Fills the buffer from position, or up to the end of the file, and
+    // flips it for reading
+    private static void readFrom(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) break;
+        }
+        buffer.flip();
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() >= bytes) return;
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+    }
+}
@@ -0,0 +1,82 @@
+package com.snakegame.sim;
+
+import com.snakegame.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Collects the inputs of one game into the {@link Replay} event format as
+ * they happen. Attach it with {@link GameSimulation#setRecorder(ReplayRecorder)};
+ * the simulation calls it on every applied turn and bonus. The buffer is
+ * kept across games, so recording allocates only when it grows and when
+ * {@link #finish(GameSimulation)} copies it out.
+ */
+public class ReplayRecorder {
+    private byte[] buffer = new byte[256];
+    private int length;
+    private int eventCount;
+    private long lastTick;
+
+    private int columns;
+    private int rows;
+    private int pointsPerFood;
+    private int specialFoodChance;
+    private long seed;
+
+    /**
+     * Starts a new recording of a game that has just been reset.
+     */
+    public void begin(GameSimulation game) {
+        columns = game.getColumns();
+        rows = game.getRows();
+        pointsPerFood = game.getPointsPerFood();
+        specialFoodChance = game.getSpecialFoodChance();
+        seed = game.getSeed();
+        length = 0;
+        eventCount = 0;
+        lastTick = 0;
+    }
+
+    void recordTurn(long tick, Direction direction) {
+        writeHeader(tick, direction.ordinal());
+    }
+
+    void recordBonus(long tick, int points) {
+        writeHeader(tick, Replay.BONUS);
+        writeVarint(((points << 1) ^ (points >> 31)) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return the recording so far, with the game's current tick and score
+     *         as its outcome
+     */
+    public Replay finish(GameSimulation game) {
+        return new Replay(columns, rows, pointsPerFood, specialFoodChance, seed,
+                game.getTicks(), game.getScore(), eventCount, Arrays.copyOf(buffer, length));
+    }
+
+    /**
+     * @return bytes of encoded events so far
+     */
+    public int size() {
+        return length;
+    }
+
+    private void writeHeader(long tick, int kind) {
+        writeVarint(((tick - lastTick) << Replay.KIND_BITS) | kind);
+        lastTick = tick;
+        eventCount++;
+    }
+
+    private void writeVarint(long value) {
+        // At most 10 bytes for a 64-bit value
+        if (length + 10 > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        while ((value & ~0x7FL) != 0) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
+    }
+}
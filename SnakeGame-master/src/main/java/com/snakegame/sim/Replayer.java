@@ -0,0 +1,211 @@
+package com.snakegame.sim;
+
+import com.snakegame.Direction;
+import com.snakegame.models.Difficulty;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Plays a {@link Replay} back headless, as fast as the simulation runs, and
+ * checks that it reaches the recorded outcome.
+ *
+ * Run on its own it is a determinism check: it records seeded games played
+ * by {@link GreedyPolicy}, awarding a bonus for every special food, replays
+ * each one and reports mismatches, bytes per replay and replay throughput.
+ *
+ * Usage: Replayer [games=N] [difficulty=EASY|MEDIUM|HARD] [columns=N] [rows=N]
+ *                 [maxTicks=N] [seed=N]
+ */
+public final class Replayer {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private Replayer() {
+    }
+
+    /**
+     * Replays into a new simulation.
+     */
+    public static GameSimulation play(Replay replay) {
+        GameSimulation game = new GameSimulation(replay.getColumns(), replay.getRows(),
+                replay.getPointsPerFood(), replay.getSpecialFoodChance(), replay.getSeed());
+        playInto(game, replay);
+        return game;
+    }
+
+    /**
+     * Resets {@code game} to the replay's seed and plays it to the recorded
+     * end tick. The game must have the replay's board size and rules.
+     */
+    public static void playInto(GameSimulation game, Replay replay) {
+        playInto(game, replay.getSeed(), replay.getEndTick(), ByteBuffer.wrap(replay.getEvents()));
+    }
+
+    /**
+     * Replays encoded events read straight from a buffer, such as a mapped
+     * {@link ReplayFileReader}, between its position and limit. The buffer's
+     * position is not changed.
+     */
+    public static void playInto(GameSimulation game, long seed, long endTick, ByteBuffer events) {
+        play(game, seed, endTick, events, -1);
+    }
+
+    /**
+     * Replays untrusted events, such as a submitted score's, checking that
+     * they are ones the game itself could have recorded: well-formed, in tick
+     * order, no event after the end, and at most one bonus of 0 to
+     * {@code maxBonus} points per special food, awarded right after eating it.
+     * @return false at the first event that breaks these rules, leaving
+     *         {@code game} where it stopped
+     */
+    public static boolean playStrict(GameSimulation game, long seed, long endTick,
+                                     ByteBuffer events, int maxBonus) {
+        return play(game, seed, endTick, events, maxBonus);
+    }
+
+    // A negative maxBonus trusts the events and applies them as recorded
+    private static boolean play(GameSimulation game, long seed, long endTick,
+                                ByteBuffer events, int maxBonus) {
+        game.setRecorder(null);
+        game.reset(seed);
+
+        boolean strict = maxBonus >= 0;
+        int position = events.position();
+        int limit = events.limit();
+        long eventTick = 0;
+        boolean bonusAllowed = false;
+
+        try {
+            while (true) {
+                Direction turn = null;
+                // Apply everything recorded at the current tick before stepping
+                while (position < limit) {
+                    long header = 0;
+                    int shift = 0;
+                    int start = position;
+                    byte b;
+                    do {
+                        b = events.get(position++);
+                        header |= (long) (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0 && shift < 64);
+                    if (b < 0) return false;
+
+                    long tick = eventTick + (header >>> Replay.KIND_BITS);
+                    if (tick != game.getTicks()) {
+                        position = start;
+                        break;
+                    }
+                    eventTick = tick;
+
+                    int kind = (int) (header & ((1 << Replay.KIND_BITS) - 1));
+                    if (kind == Replay.BONUS) {
+                        int zigzag = 0;
+                        shift = 0;
+                        do {
+                            b = events.get(position++);
+                            zigzag |= (b & 0x7F) << shift;
+                            shift += 7;
+                        } while (b < 0 && shift < 35);
+                        if (b < 0) return false;
+                        int points = (zigzag >>> 1) ^ -(zigzag & 1);
+                        if (strict && (!bonusAllowed || points < 0 || points > maxBonus)) {
+                            return false;
+                        }
+                        bonusAllowed = false;
+                        game.addBonus(points);
+                    } else if (kind < DIRECTIONS.length && (!strict || turn == null)) {
+                        turn = DIRECTIONS[kind];
+                    } else {
+                        return false;
+                    }
+                }
+
+                if (game.getTicks() >= endTick || game.isGameOver()) {
+                    // Anything left was recorded after the game had ended
+                    return !strict || position == limit;
+                }
+                int stepEvents = game.step(turn);
+                bonusAllowed = (stepEvents & GameSimulation.ATE_SPECIAL_FOOD) != 0;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // The last varint runs past the end of the events
+            return false;
+        }
+    }
+
+    /**
+     * @return true if replaying reproduces the recorded tick count and score
+     */
+    public static boolean verify(Replay replay) {
+        GameSimulation game = play(replay);
+        return game.getTicks() == replay.getEndTick() && game.getScore() == replay.getFinalScore();
+    }
+
+    public static void main(String[] args) {
+        int games = 1_000;
+        Difficulty difficulty = Difficulty.EASY;
+        int columns = 40;
+        int rows = 30;
+        long maxTicks = 100_000;
+        long seed = 1;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "games": games = Integer.parseInt(value); break;
+                case "difficulty": difficulty = Difficulty.valueOf(value.toUpperCase()); break;
+                case "columns": columns = Integer.parseInt(value); break;
+                case "rows": rows = Integer.parseInt(value); break;
+                case "maxTicks": maxTicks = Long.parseLong(value); break;
+                case "seed": seed = Long.parseLong(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+
+        Policy policy = new GreedyPolicy();
+        ReplayRecorder recorder = new ReplayRecorder();
+        GameSimulation recording = new GameSimulation(columns, rows,
+                difficulty.getPointsPerFood(), 80, seed);
+        GameSimulation replaying = new GameSimulation(columns, rows,
+                difficulty.getPointsPerFood(), 80, seed);
+        recording.setRecorder(recorder);
+
+        Replay[] replays = new Replay[games];
+        long totalBytes = 0;
+        for (int i = 0; i < games; i++) {
+            recording.reset(seed + i);
+            while (!recording.isGameOver() && recording.getTicks() < maxTicks) {
+                int events = recording.step(policy.choose(recording));
+                if ((events & GameSimulation.ATE_SPECIAL_FOOD) != 0) {
+                    recording.addBonus(10);
+                }
+            }
+            replays[i] = recorder.finish(recording);
+            totalBytes += replays[i].getEvents().length;
+        }
+
+        long ticks = 0;
+        int mismatches = 0;
+        long start = System.nanoTime();
+        for (Replay replay : replays) {
+            playInto(replaying, replay);
+            ticks += replaying.getTicks();
+            if (replaying.getTicks() != replay.getEndTick()
+                    || replaying.getScore() != replay.getFinalScore()) {
+                mismatches++;
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d replays, %d mismatches%n", games, mismatches);
+        System.out.printf("%.1f event bytes per game, %.3f per tick%n",
+                (double) totalBytes / games, (double) totalBytes / Math.max(1, ticks));
+        System.out.printf("%d ticks replayed in %.2f s, %.2f M ticks/s%n",
+                ticks, elapsed, ticks / elapsed / 1e6);
+    }
+}
@@ -0,0 +1,151 @@
+package com.snakegame.sim;
+
+import com.snakegame.models.Difficulty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link ScoreVerifier} checks on a fixed pool of worker threads. The
+ * queue is bounded: when it is full the submitting thread runs the check
+ * itself, which slows producers down instead of queueing without limit.
+ *
+ * Run on its own it is a throughput benchmark: it records seeded games played
+ * by {@link GreedyPolicy}, submits each with its true score and once more with
+ * a forged one, and reports verifications per second and the cost per tick.
+ *
+ * Usage: ScoreVerificationPool [games=N] [threads=N] [difficulty=EASY|MEDIUM|HARD]
+ *                              [columns=N] [rows=N] [seed=N]
+ */
+public class ScoreVerificationPool implements AutoCloseable {
+    private static final int QUEUE_PER_THREAD = 256;
+
+    private final ScoreVerifier verifier;
+    private final ThreadPoolExecutor workers;
+
+    public ScoreVerificationPool(ScoreVerifier verifier, int threads) {
+        this.verifier = verifier;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_PER_THREAD),
+                task -> {
+                    Thread thread = new Thread(task, "score-verifier-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> {
+                    // Run it here when the queue is full, like CallerRunsPolicy,
+                    // but fail it once closed instead of dropping it silently
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Verification pool is closed");
+                    }
+                    task.run();
+                });
+    }
+
+    public CompletableFuture<ScoreVerifier.Verdict> submit(Replay replay, Difficulty difficulty, int claimedScore) {
+        try {
+            return CompletableFuture.supplyAsync(() -> verifier.verify(replay, difficulty, claimedScore), workers);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Stops taking work and waits for queued checks to finish.
+     */
+    @Override
+    public void close() {
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = 10_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Difficulty difficulty = Difficulty.EASY;
+        int columns = 40;
+        int rows = 30;
+        long seed = 1;
+        int specialFoodChance = 80;
+        int bonus = 10;
+        long maxTicks = 1_000_000;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "games": games = Integer.parseInt(value); break;
+                case "threads": threads = Integer.parseInt(value); break;
+                case "difficulty": difficulty = Difficulty.valueOf(value.toUpperCase()); break;
+                case "columns": columns = Integer.parseInt(value); break;
+                case "rows": rows = Integer.parseInt(value); break;
+                case "seed": seed = Long.parseLong(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+
+        // Record the submissions up front so only verification is timed
+        Policy policy = new GreedyPolicy();
+        ReplayRecorder recorder = new ReplayRecorder();
+        GameSimulation game = new GameSimulation(columns, rows,
+                difficulty.getPointsPerFood(), specialFoodChance, seed);
+        game.setRecorder(recorder);
+        Replay[] replays = new Replay[games];
+        int[] scores = new int[games];
+        long ticks = 0;
+        for (int i = 0; i < games; i++) {
+            game.reset(seed + i);
+            // A game cut off here is not over, so its genuine score is
+            // rejected and shows in the count below instead of hanging the run
+            while (!game.isGameOver() && game.getTicks() < maxTicks) {
+                if ((game.step(policy.choose(game)) & GameSimulation.ATE_SPECIAL_FOOD) != 0) {
+                    game.addBonus(bonus);
+                }
+            }
+            replays[i] = recorder.finish(game);
+            scores[i] = difficulty.calculateScore(game.getScore());
+            ticks += game.getTicks();
+        }
+
+        ScoreVerifier verifier = new ScoreVerifier(columns, rows, specialFoodChance, bonus, maxTicks);
+        List<CompletableFuture<ScoreVerifier.Verdict>> results = new ArrayList<>(games * 2);
+        long start = System.nanoTime();
+        try (ScoreVerificationPool pool = new ScoreVerificationPool(verifier, threads)) {
+            for (int i = 0; i < games; i++) {
+                results.add(pool.submit(replays[i], difficulty, scores[i]));
+                results.add(pool.submit(replays[i], difficulty, scores[i] + 1));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        int accepted = 0;
+        int forgedAccepted = 0;
+        for (int i = 0; i < games; i++) {
+            if (results.get(2 * i).join() == ScoreVerifier.Verdict.ACCEPTED) accepted++;
+            if (results.get(2 * i + 1).join() == ScoreVerifier.Verdict.ACCEPTED) forgedAccepted++;
+        }
+
+        System.out.printf("%d verifications on %d threads in %.2f s: %.0f verifications/s%n",
+                games * 2, threads, elapsed, games * 2 / elapsed);
+        System.out.printf("%.1f ns per verified tick, mean game %d ticks%n",
+                elapsed * 1e9 * threads / (ticks * 2), ticks / games);
+        System.out.printf("%d/%d genuine accepted, %d/%d forged accepted%n",
+                accepted, games, forgedAccepted, games);
+    }
+}
@@ -0,0 +1,84 @@
+package com.snakegame.sim;
+
+import com.snakegame.models.Difficulty;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decides whether a submitted score is genuine by re-simulating its replay
+ * headless under the server's rules, instead of trusting the score the client
+ * computed. A replay is accepted only if it was played on the expected board
+ * and rules, contains only inputs the game could have recorded, ends in a
+ * game over within {@code maxTicks}, and its final score after the
+ * difficulty multiplier equals the claimed one.
+ *
+ * Thread-safe: each thread re-simulates in its own games, one per difficulty,
+ * which are reset in place, so a verification allocates almost nothing.
+ * {@link ScoreVerificationPool} runs verifications on worker threads.
+ */
+public class ScoreVerifier {
+    public enum Verdict {
+        ACCEPTED,
+        WRONG_RULES,
+        TOO_LONG,
+        ILLEGAL_INPUT,
+        NOT_FINISHED,
+        SCORE_MISMATCH
+    }
+
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final int columns;
+    private final int rows;
+    private final int specialFoodChance;
+    private final int maxBonus;
+    private final long maxTicks;
+    private final ThreadLocal<GameSimulation[]> games;
+
+    /**
+     * @param maxBonus most points a single special food can award
+     * @param maxTicks longest game accepted, which bounds the cost of one check
+     */
+    public ScoreVerifier(int columns, int rows, int specialFoodChance, int maxBonus, long maxTicks) {
+        this.columns = columns;
+        this.rows = rows;
+        this.specialFoodChance = specialFoodChance;
+        this.maxBonus = maxBonus;
+        this.maxTicks = maxTicks;
+        this.games = ThreadLocal.withInitial(() -> new GameSimulation[DIFFICULTIES.length]);
+    }
+
+    public Verdict verify(Replay replay, Difficulty difficulty, int claimedScore) {
+        if (replay.getColumns() != columns || replay.getRows() != rows
+                || replay.getSpecialFoodChance() != specialFoodChance
+                || replay.getPointsPerFood() != difficulty.getPointsPerFood()) {
+            return Verdict.WRONG_RULES;
+        }
+        if (replay.getEndTick() < 0 || replay.getEndTick() > maxTicks) {
+            return Verdict.TOO_LONG;
+        }
+
+        GameSimulation game = gameFor(difficulty);
+        if (!Replayer.playStrict(game, replay.getSeed(), replay.getEndTick(),
+                ByteBuffer.wrap(replay.getEvents()), maxBonus)) {
+            return Verdict.ILLEGAL_INPUT;
+        }
+        if (!game.isGameOver() || game.getTicks() != replay.getEndTick()) {
+            return Verdict.NOT_FINISHED;
+        }
+        if (difficulty.calculateScore(game.getScore()) != claimedScore) {
+            return Verdict.SCORE_MISMATCH;
+        }
+        return Verdict.ACCEPTED;
+    }
+
+    private GameSimulation gameFor(Difficulty difficulty) {
+        GameSimulation[] perDifficulty = games.get();
+        GameSimulation game = perDifficulty[difficulty.ordinal()];
+        if (game == null) {
+            game = new GameSimulation(columns, rows, difficulty.getPointsPerFood(), specialFoodChance, 0);
+            perDifficulty[difficulty.ordinal()] = game;
+        }
+        return game;
+    }
+}
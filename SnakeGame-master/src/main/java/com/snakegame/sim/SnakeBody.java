@@ -0,0 +1,186 @@
+package com.snakegame.sim;
+
+import com.snakegame.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Snake body in grid cells, free of any AWT types so it can run headless.
+ * Segments are packed (column, row) ints in a circular buffer; per-cell
+ * occupancy counts and the {@link FreeCells} index are kept in step with it.
+ */
+public class SnakeBody {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Segment i lives at cells[(head + i) & (cells.length - 1)]
+    private int[] cells;
+    private int head;
+    private int length;
+    private Direction direction;
+
+    // Segments per on-board cell, indexed by row * columns + column
+    private final short[] occupancy;
+    private final FreeCells freeCells;
+    private final int columns;
+    private final int rows;
+
+    public SnakeBody(int columns, int rows, int startColumn, int startRow) {
+        this.cells = new int[INITIAL_CAPACITY];
+        this.columns = columns;
+        this.rows = rows;
+        this.occupancy = new short[columns * rows];
+        this.freeCells = new FreeCells(columns * rows);
+        reset(startColumn, startRow);
+    }
+
+    /**
+     * Puts a fresh 3-segment snake back on an empty board, keeping the
+     * buffers already allocated so back-to-back games create no garbage.
+     */
+    public void reset(int startColumn, int startRow) {
+        Arrays.fill(occupancy, (short) 0);
+        freeCells.reset();
+        head = 0;
+        length = 0;
+        direction = Direction.RIGHT;
+
+        appendTail(pack(startColumn, startRow));
+        appendTail(pack(startColumn - 1, startRow));
+        appendTail(pack(startColumn - 2, startRow));
+    }
+
+    public void move() {
+        int headCell = cells[head];
+        int newHead = pack(column(headCell) + direction.dx, row(headCell) + direction.dy);
+
+        // Stepping the head back one slot reuses the tail's slot, so the old
+        // tail drops out of the live range without any shifting.
+        vacate(cellAt(length - 1));
+        head = (head - 1) & (cells.length - 1);
+        cells[head] = newHead;
+        occupy(newHead);
+    }
+
+    public void grow() {
+        appendTail(cellAt(length - 1));
+    }
+
+    public int size() {
+        return length;
+    }
+
+    public int headColumn() {
+        return column(cells[head]);
+    }
+
+    public int headRow() {
+        return row(cells[head]);
+    }
+
+    /**
+     * @return the head's cell index, or -1 if the head has left the board
+     */
+    public int headCell() {
+        return indexOf(cells[head]);
+    }
+
+    public int columnAt(int index) {
+        return column(cellAt(index));
+    }
+
+    public int rowAt(int index) {
+        return row(cellAt(index));
+    }
+
+    public boolean isHeadOnBoard() {
+        return indexOf(cells[head]) >= 0;
+    }
+
+    public boolean isOccupied(int column, int row) {
+        return column >= 0 && column < columns && row >= 0 && row < rows
+                && occupancy[row * columns + column] > 0;
+    }
+
+    public boolean checkSelfCollision() {
+        int index = indexOf(cells[head]);
+        return index >= 0 && occupancy[index] > 1;
+    }
+
+    /**
+     * Empty cells on the board, kept in sync with every move and grow.
+     */
+    public FreeCells getFreeCells() {
+        return freeCells;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public void setDirection(Direction direction) {
+        this.direction = direction;
+    }
+
+    private int cellAt(int index) {
+        return cells[(head + index) & (cells.length - 1)];
+    }
+
+    private void appendTail(int cell) {
+        if (length == cells.length) {
+            int[] grown = new int[cells.length << 1];
+            for (int i = 0; i < length; i++) {
+                grown[i] = cellAt(i);
+            }
+            cells = grown;
+            head = 0;
+        }
+        cells[(head + length) & (cells.length - 1)] = cell;
+        length++;
+        occupy(cell);
+    }
+
+    private void occupy(int cell) {
+        int index = indexOf(cell);
+        if (index >= 0 && occupancy[index]++ == 0) {
+            freeCells.remove(index);
+        }
+    }
+
+    private void vacate(int cell) {
+        int index = indexOf(cell);
+        if (index >= 0 && --occupancy[index] == 0) {
+            freeCells.add(index);
+        }
+    }
+
+    private int indexOf(int cell) {
+        int column = column(cell);
+        int row = row(cell);
+        if (column < 0 || column >= columns || row < 0 || row >= rows) {
+            return -1;
+        }
+        return row * columns + column;
+    }
+
+    // Columns and rows may go negative when the head leaves the board, so the
+    // row is kept as a signed 16-bit value in the low half.
+    private static int pack(int column, int row) {
+        return (column << 16) | (row & 0xFFFF);
+    }
+
+    private static int column(int cell) {
+        return cell >> 16;
+    }
+
+    private static int row(int cell) {
+        return (short) cell;
+    }
+}
@@ -0,0 +1,137 @@
+package com.snakegame.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.awt.event.WindowStateListener;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One animation clock for every screen, instead of a Swing timer per
+ * component. Each pulse runs the callbacks of registered components that
+ * can actually be seen: components that are not showing, are in an
+ * iconified window, or sit behind a modal dialog are skipped. When nothing
+ * registered is showing the timer stops altogether, and it restarts when a
+ * component is shown again or its window is restored.
+ *
+ * Everything here runs on the EDT.
+ */
+public final class AnimationScheduler {
+    public static final int PERIOD_MILLIS = 50;
+
+    private static final AnimationScheduler SHARED = new AnimationScheduler();
+
+    private final Timer timer;
+    private final List<Registration> registrations = new ArrayList<>();
+    private final WindowStateListener windowStateListener = e -> wake();
+
+    private AnimationScheduler() {
+        timer = new Timer(PERIOD_MILLIS, e -> pulse());
+        timer.setCoalesce(true);
+    }
+
+    public static AnimationScheduler shared() {
+        return SHARED;
+    }
+
+    /**
+     * Runs {@code onPulse} every {@link #PERIOD_MILLIS} while the component
+     * is visible, until the returned registration is cancelled.
+     */
+    public Registration register(JComponent component, Runnable onPulse) {
+        Registration registration = new Registration(component, onPulse);
+        registrations.add(registration);
+        component.addHierarchyListener(registration);
+        registration.watchWindow();
+        wake();
+        return registration;
+    }
+
+    private void pulse() {
+        boolean anyShowing = false;
+        // Callbacks may cancel registrations, so walk a snapshot
+        Registration[] snapshot = registrations.toArray(new Registration[0]);
+        for (Registration registration : snapshot) {
+            if (!registration.isVisible()) continue;
+            anyShowing = true;
+            if (!registration.isBlocked()) {
+                registration.onPulse.run();
+            }
+        }
+        if (!anyShowing) {
+            timer.stop();
+        }
+    }
+
+    private void wake() {
+        if (timer.isRunning()) return;
+        for (Registration registration : registrations) {
+            if (registration.isVisible()) {
+                timer.start();
+                return;
+            }
+        }
+    }
+
+    public final class Registration implements HierarchyListener {
+        private final JComponent component;
+        private final Runnable onPulse;
+        private Window window;
+
+        private Registration(JComponent component, Runnable onPulse) {
+            this.component = component;
+            this.onPulse = onPulse;
+        }
+
+        public void cancel() {
+            registrations.remove(this);
+            component.removeHierarchyListener(this);
+            if (window != null) {
+                window.removeWindowStateListener(windowStateListener);
+                window = null;
+            }
+        }
+
+        @Override
+        public void hierarchyChanged(HierarchyEvent e) {
+            if ((e.getChangeFlags() & (HierarchyEvent.SHOWING_CHANGED | HierarchyEvent.PARENT_CHANGED)) != 0) {
+                watchWindow();
+                wake();
+            }
+        }
+
+        // Follows the component's window, to hear about iconify and restore
+        private void watchWindow() {
+            Window current = SwingUtilities.getWindowAncestor(component);
+            if (current == window) return;
+            if (window != null) {
+                window.removeWindowStateListener(windowStateListener);
+            }
+            window = current;
+            if (window != null) {
+                window.addWindowStateListener(windowStateListener);
+            }
+        }
+
+        private boolean isVisible() {
+            if (!component.isShowing()) return false;
+            return !(window instanceof Frame)
+                    || (((Frame) window).getExtendedState() & Frame.ICONIFIED) == 0;
+        }
+
+        // A modal dialog over the window covers it, but closing the dialog
+        // fires no event here, so the timer keeps running and only the
+        // callback is skipped
+        private boolean isBlocked() {
+            if (window == null) return false;
+            for (Window owned : window.getOwnedWindows()) {
+                if (owned instanceof Dialog && ((Dialog) owned).isModal() && owned.isShowing()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
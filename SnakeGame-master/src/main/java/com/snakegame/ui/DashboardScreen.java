@@ -15,20 +15,23 @@ public class DashboardScreen extends JPanel {
     private User currentUser;
     private FirestoreService firestoreService;
     private LeaderboardPanel leaderboardPanel;
+    private static final long SCORE_WRITE_TIMEOUT_MILLIS = 5000;
     
     // Modern UI Colors - matching game theme
-    private final Color DARK_BG = new Color(15, 15, 25);
-    private final Color CARD_BG = new Color(25, 25, 40);
-    private final Color ACCENT_GREEN = new Color(0, 255, 150);
-    private final Color ACCENT_BLUE = new Color(100, 150, 255);
-    private final Color ACCENT_PURPLE = new Color(150, 100, 255);
-    private final Color ACCENT_RED = new Color(255, 100, 100);
-    private final Color TEXT_PRIMARY = new Color(240, 240, 255);
-    private final Color TEXT_SECONDARY = new Color(150, 150, 170);
+    private final Color DARK_BG = Theme.DARK_BG;
+    private final Color CARD_BG = Theme.CARD_BG;
+    private final Color ACCENT_GREEN = Theme.ACCENT_GREEN;
+    private final Color ACCENT_BLUE = Theme.ACCENT_BLUE;
+    private final Color ACCENT_PURPLE = Theme.ACCENT_PURPLE;
+    private final Color ACCENT_RED = Theme.ACCENT_RED;
+    private final Color TEXT_PRIMARY = Theme.TEXT_PRIMARY;
+    private final Color TEXT_SECONDARY = Theme.TEXT_SECONDARY;
+    
+    private final Theme.Gradient backgroundGradient = new Theme.Gradient(DARK_BG, Theme.DARK_BG_END);
     
     // Animation
     private float pulseAnimation = 0f;
-    private Timer animationTimer;
+    private AnimationScheduler.Registration animation;
     
     public DashboardScreen(JFrame parentFrame, User currentUser) {
         this.parentFrame = parentFrame;
@@ -43,14 +46,13 @@ public class DashboardScreen extends JPanel {
     }
     
     private void startAnimation() {
-        animationTimer = new Timer(50, e -> {
+        animation = AnimationScheduler.shared().register(this, () -> {
             pulseAnimation += 0.05f;
             if (pulseAnimation > Math.PI * 2) {
                 pulseAnimation = 0f;
             }
             repaint();
         });
-        animationTimer.start();
     }
     
     @Override
@@ -60,20 +62,16 @@ public class DashboardScreen extends JPanel {
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         
         // Gradient background
-        GradientPaint gradient = new GradientPaint(
-            0, 0, DARK_BG,
-            getWidth(), getHeight(), new Color(20, 20, 35)
-        );
-        g2d.setPaint(gradient);
+        g2d.setPaint(backgroundGradient.at(0, 0, getWidth(), getHeight()));
         g2d.fillRect(0, 0, getWidth(), getHeight());
         
         // Animated background pattern
-        g2d.setColor(new Color(255, 255, 255, 3));
+        g2d.setColor(Theme.alpha(Color.WHITE, 3));
         for (int i = 0; i < getWidth(); i += 100) {
             for (int j = 0; j < getHeight(); j += 100) {
                 float offset = (float) Math.sin(pulseAnimation + (i + j) * 0.01);
                 int alpha = (int) (5 + 3 * offset);
-                g2d.setColor(new Color(255, 255, 255, alpha));
+                g2d.setColor(Theme.alpha(Color.WHITE, alpha));
                 g2d.fillOval(i, j, 3, 3);
             }
         }
@@ -133,22 +131,20 @@ public class DashboardScreen extends JPanel {
     
     private JPanel createHeaderPanel() {
         JPanel header = new JPanel() {
+            private final Theme.Gradient gradient = new Theme.Gradient(CARD_BG, Theme.CARD_BG_END);
+            
             @Override
             protected void paintComponent(Graphics g) {
                 Graphics2D g2d = (Graphics2D) g;
                 g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
                 
                 // Gradient background
-                GradientPaint gradient = new GradientPaint(
-                    0, 0, new Color(25, 25, 40),
-                    0, getHeight(), new Color(30, 30, 50)
-                );
-                g2d.setPaint(gradient);
+                g2d.setPaint(gradient.at(0, 0, 0, getHeight()));
                 g2d.fillRect(0, 0, getWidth(), getHeight());
                 
                 // Bottom border
                 g2d.setColor(ACCENT_BLUE);
-                g2d.setStroke(new BasicStroke(2f));
+                g2d.setStroke(Theme.STROKE_2);
                 g2d.drawLine(0, getHeight() - 1, getWidth(), getHeight() - 1);
             }
         };
@@ -163,7 +159,7 @@ public class DashboardScreen extends JPanel {
         leftSide.setOpaque(false);
         
         JLabel logoLabel = new JLabel("🐍");
-        logoLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 36));
+        logoLabel.setFont(Theme.emoji(Font.PLAIN, 36));
         leftSide.add(logoLabel);
         
         JPanel titlePanel = new JPanel();
@@ -171,12 +167,12 @@ public class DashboardScreen extends JPanel {
         titlePanel.setLayout(new BoxLayout(titlePanel, BoxLayout.Y_AXIS));
         
         JLabel titleLabel = new JLabel("SNAKE GAME");
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 22));
+        titleLabel.setFont(Theme.ui(Font.BOLD, 22));
         titleLabel.setForeground(ACCENT_GREEN);
         titlePanel.add(titleLabel);
         
         JLabel subtitleLabel = new JLabel("Dashboard");
-        subtitleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        subtitleLabel.setFont(Theme.ui(Font.PLAIN, 11));
         subtitleLabel.setForeground(TEXT_SECONDARY);
         titlePanel.add(subtitleLabel);
         
@@ -197,7 +193,10 @@ public class DashboardScreen extends JPanel {
         card.setLayout(new BorderLayout(15, 0));
         
         // Avatar section
+        String initial = currentUser.getUsername().substring(0, 1).toUpperCase();
         JPanel avatarPanel = new JPanel() {
+            private final Theme.Gradient avatarGradient = new Theme.Gradient(ACCENT_GREEN, ACCENT_BLUE);
+            
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
@@ -214,27 +213,22 @@ public class DashboardScreen extends JPanel {
                 int glowSize = (int) (size + 12 * pulse);
                 int glowOffset = (size - glowSize) / 2;
                 
-                g2d.setColor(new Color(ACCENT_GREEN.getRed(), ACCENT_GREEN.getGreen(), ACCENT_GREEN.getBlue(), 30));
+                g2d.setColor(Theme.alpha(ACCENT_GREEN, 30));
                 g2d.fillOval(x + glowOffset, y + glowOffset, glowSize, glowSize);
                 
                 // Avatar background gradient
-                GradientPaint avatarGradient = new GradientPaint(
-                    x, y, ACCENT_GREEN,
-                    x + size, y + size, ACCENT_BLUE
-                );
-                g2d.setPaint(avatarGradient);
+                g2d.setPaint(avatarGradient.at(x, y, x + size, y + size));
                 g2d.fillOval(x, y, size, size);
                 
                 // Border
                 g2d.setColor(TEXT_PRIMARY);
-                g2d.setStroke(new BasicStroke(2.5f));
+                g2d.setStroke(Theme.STROKE_2_5);
                 g2d.drawOval(x, y, size, size);
                 
                 // User initial
                 g2d.setColor(DARK_BG);
-                g2d.setFont(new Font("Segoe UI", Font.BOLD, 48));
-                String initial = currentUser.getUsername().substring(0, 1).toUpperCase();
-                FontMetrics fm = g2d.getFontMetrics();
+                g2d.setFont(Theme.ui(Font.BOLD, 48));
+                FontMetrics fm = Theme.metrics(g2d.getFont());
                 int textX = x + (size - fm.stringWidth(initial)) / 2;
                 int textY = y + (size + fm.getAscent() - fm.getDescent()) / 2;
                 g2d.drawString(initial, textX, textY);
@@ -250,7 +244,7 @@ public class DashboardScreen extends JPanel {
         infoPanel.setBorder(new EmptyBorder(10, 0, 10, 0));
         
         JLabel usernameLabel = new JLabel(currentUser.getUsername());
-        usernameLabel.setFont(new Font("Segoe UI", Font.BOLD, 26));
+        usernameLabel.setFont(Theme.ui(Font.BOLD, 26));
         usernameLabel.setForeground(TEXT_PRIMARY);
         usernameLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         infoPanel.add(usernameLabel);
@@ -260,7 +254,7 @@ public class DashboardScreen extends JPanel {
         String emailText = currentUser.getEmail() != null && !currentUser.getEmail().isEmpty() 
             ? currentUser.getEmail() : "No email provided";
         JLabel emailLabel = new JLabel(emailText);
-        emailLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        emailLabel.setFont(Theme.ui(Font.PLAIN, 13));
         emailLabel.setForeground(TEXT_SECONDARY);
         emailLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         infoPanel.add(emailLabel);
@@ -273,7 +267,7 @@ public class DashboardScreen extends JPanel {
         badgePanel.setAlignmentX(Component.LEFT_ALIGNMENT);
         
         JLabel trophyLabel = new JLabel("🏆");
-        trophyLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 26));
+        trophyLabel.setFont(Theme.emoji(Font.PLAIN, 26));
         badgePanel.add(trophyLabel);
         
         JPanel scorePanel = new JPanel();
@@ -281,12 +275,12 @@ public class DashboardScreen extends JPanel {
         scorePanel.setLayout(new BoxLayout(scorePanel, BoxLayout.Y_AXIS));
         
         JLabel scoreLabel = new JLabel(String.valueOf(currentUser.getHighScore()));
-        scoreLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        scoreLabel.setFont(Theme.ui(Font.BOLD, 24));
         scoreLabel.setForeground(ACCENT_GREEN);
         scorePanel.add(scoreLabel);
         
         JLabel scoreLabelText = new JLabel("High Score");
-        scoreLabelText.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        scoreLabelText.setFont(Theme.ui(Font.PLAIN, 11));
         scoreLabelText.setForeground(TEXT_SECONDARY);
         scorePanel.add(scoreLabelText);
         
@@ -304,7 +298,7 @@ public class DashboardScreen extends JPanel {
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
         
         JLabel titleLabel = new JLabel("⚡ QUICK PLAY");
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 20));
+        titleLabel.setFont(Theme.ui(Font.BOLD, 20));
         titleLabel.setForeground(TEXT_PRIMARY);
         titleLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         card.add(titleLabel);
@@ -312,7 +306,7 @@ public class DashboardScreen extends JPanel {
         card.add(Box.createVerticalStrut(4));
         
         JLabel subtitleLabel = new JLabel("Choose your difficulty");
-        subtitleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        subtitleLabel.setFont(Theme.ui(Font.PLAIN, 13));
         subtitleLabel.setForeground(TEXT_SECONDARY);
         subtitleLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         card.add(subtitleLabel);
@@ -337,6 +331,13 @@ public class DashboardScreen extends JPanel {
     }
     
     private JButton createDifficultyButton(Difficulty difficulty) {
+        String icon = difficulty == Difficulty.EASY ? "🟢" : 
+                     difficulty == Difficulty.MEDIUM ? "🟡" : "🔴";
+        String title = difficulty.getDisplayName().toUpperCase();
+        String details = "Speed: " + difficulty.getSpeed() + " • Multiplier: " + difficulty.getScoreMultiplier() + "x";
+        Color color = difficulty.getColor();
+        Color pressedColor = color.darker();
+        Color rolloverColor = color.brighter();
         JButton button = new JButton() {
             @Override
             protected void paintComponent(Graphics g) {
@@ -346,11 +347,11 @@ public class DashboardScreen extends JPanel {
                 // Background with hover effect
                 Color bgColor;
                 if (getModel().isPressed()) {
-                    bgColor = difficulty.getColor().darker();
+                    bgColor = pressedColor;
                 } else if (getModel().isRollover()) {
-                    bgColor = difficulty.getColor().brighter();
+                    bgColor = rolloverColor;
                 } else {
-                    bgColor = difficulty.getColor();
+                    bgColor = color;
                 }
                 
                 g2d.setColor(bgColor);
@@ -360,19 +361,16 @@ public class DashboardScreen extends JPanel {
                 g2d.setColor(DARK_BG);
                 
                 // Icon
-                String icon = difficulty == Difficulty.EASY ? "🟢" : 
-                             difficulty == Difficulty.MEDIUM ? "🟡" : "🔴";
-                g2d.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 22));
+                g2d.setFont(Theme.emoji(Font.PLAIN, 22));
                 g2d.drawString(icon, 18, 35);
                 
                 // Title
-                g2d.setFont(new Font("Segoe UI", Font.BOLD, 17));
-                g2d.drawString(difficulty.getDisplayName().toUpperCase(), 55, 32);
+                g2d.setFont(Theme.ui(Font.BOLD, 17));
+                g2d.drawString(title, 55, 32);
                 
                 // Details
-                g2d.setColor(new Color(0, 0, 0, 150));
-                g2d.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-                String details = "Speed: " + difficulty.getSpeed() + " • Multiplier: " + difficulty.getScoreMultiplier() + "x";
+                g2d.setColor(Theme.alpha(Color.BLACK, 150));
+                g2d.setFont(Theme.ui(Font.PLAIN, 12));
                 g2d.drawString(details, 55, 48);
             }
         };
@@ -410,20 +408,20 @@ public class DashboardScreen extends JPanel {
         panel.setBorder(new EmptyBorder(5, 0, 5, 0));
         
         JLabel emojiLabel = new JLabel(emoji);
-        emojiLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 32));
+        emojiLabel.setFont(Theme.emoji(Font.PLAIN, 32));
         emojiLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         panel.add(emojiLabel);
         
         panel.add(Box.createVerticalStrut(6));
         
         JLabel valueLabel = new JLabel(value);
-        valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 22));
+        valueLabel.setFont(Theme.ui(Font.BOLD, 22));
         valueLabel.setForeground(TEXT_PRIMARY);
         valueLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         panel.add(valueLabel);
         
         JLabel labelText = new JLabel(label);
-        labelText.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        labelText.setFont(Theme.ui(Font.PLAIN, 11));
         labelText.setForeground(TEXT_SECONDARY);
         labelText.setAlignmentX(Component.CENTER_ALIGNMENT);
         panel.add(labelText);
@@ -433,26 +431,24 @@ public class DashboardScreen extends JPanel {
     
     private JPanel createModernCard(int width, int height) {
         JPanel card = new JPanel() {
+            private final Theme.Gradient cardGradient = new Theme.Gradient(CARD_BG, Theme.CARD_BG_END);
+            
             @Override
             protected void paintComponent(Graphics g) {
                 Graphics2D g2d = (Graphics2D) g;
                 g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
                 
                 // Shadow
-                g2d.setColor(new Color(0, 0, 0, 70));
+                g2d.setColor(Theme.alpha(Color.BLACK, 70));
                 g2d.fillRoundRect(4, 4, getWidth() - 4, getHeight() - 4, 20, 20);
                 
                 // Card background gradient
-                GradientPaint cardGradient = new GradientPaint(
-                    0, 0, CARD_BG,
-                    0, getHeight(), new Color(30, 30, 50)
-                );
-                g2d.setPaint(cardGradient);
+                g2d.setPaint(cardGradient.at(0, 0, 0, getHeight()));
                 g2d.fillRoundRect(0, 0, getWidth() - 4, getHeight() - 4, 20, 20);
                 
                 // Border
-                g2d.setColor(new Color(ACCENT_BLUE.getRed(), ACCENT_BLUE.getGreen(), ACCENT_BLUE.getBlue(), 80));
-                g2d.setStroke(new BasicStroke(1.5f));
+                g2d.setColor(Theme.alpha(ACCENT_BLUE, 80));
+                g2d.setStroke(Theme.STROKE_1_5);
                 g2d.drawRoundRect(1, 1, getWidth() - 6, getHeight() - 6, 20, 20);
             }
         };
@@ -467,6 +463,8 @@ public class DashboardScreen extends JPanel {
     }
     
     private JButton createModernButton(String text, Color accentColor, int width, int height) {
+        Color pressedColor = accentColor.darker();
+        Color rolloverColor = accentColor.brighter();
         JButton button = new JButton(text) {
             @Override
             protected void paintComponent(Graphics g) {
@@ -475,9 +473,9 @@ public class DashboardScreen extends JPanel {
                 
                 // Background with hover effects (matching login screen)
                 if (getModel().isPressed()) {
-                    g2d.setColor(accentColor.darker());
+                    g2d.setColor(pressedColor);
                 } else if (getModel().isRollover()) {
-                    g2d.setColor(accentColor.brighter());
+                    g2d.setColor(rolloverColor);
                 } else {
                     g2d.setColor(accentColor);
                 }
@@ -486,14 +484,14 @@ public class DashboardScreen extends JPanel {
                 // Text
                 g2d.setColor(DARK_BG);
                 g2d.setFont(getFont());
-                FontMetrics fm = g2d.getFontMetrics();
+                FontMetrics fm = Theme.metrics(g2d.getFont());
                 int x = (getWidth() - fm.stringWidth(getText())) / 2;
                 int y = (getHeight() + fm.getAscent() - fm.getDescent()) / 2;
                 g2d.drawString(getText(), x, y);
             }
         };
         
-        button.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        button.setFont(Theme.ui(Font.BOLD, 13));
         button.setPreferredSize(new Dimension(width, height));
         button.setFocusPainted(false);
         button.setBorderPainted(false);
@@ -504,7 +502,7 @@ public class DashboardScreen extends JPanel {
     }
     
     private void startGame(Difficulty difficulty) {
-        animationTimer.stop();
+        animation.cancel();
         
         JFrame gameFrame = new JFrame("🐍 Snake Game - " + difficulty.getDisplayName());
         gameFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
@@ -531,6 +529,10 @@ public class DashboardScreen extends JPanel {
         new SwingWorker<User, Void>() {
             @Override
             protected User doInBackground() throws Exception {
+                // Scores are written behind; let the last game's land first
+                if (!firestoreService.awaitScoresWritten(SCORE_WRITE_TIMEOUT_MILLIS)) {
+                    System.err.println("⚠️  Scores still queued: " + firestoreService.getScoreQueueStats());
+                }
                 return firestoreService.getUser(currentUser.getUserId());
             }
             
@@ -551,7 +553,7 @@ public class DashboardScreen extends JPanel {
     }
     
     private void refreshDashboard() {
-        animationTimer.stop();
+        animation.cancel();
         parentFrame.getContentPane().removeAll();
         DashboardScreen newDashboard = new DashboardScreen(parentFrame, currentUser);
         parentFrame.add(newDashboard);
@@ -569,7 +571,7 @@ public class DashboardScreen extends JPanel {
         );
         
         if (choice == JOptionPane.YES_OPTION) {
-            animationTimer.stop();
+            animation.cancel();
             parentFrame.getContentPane().removeAll();
             parentFrame.setSize(600, 700);
             parentFrame.add(new LoginScreen(parentFrame));
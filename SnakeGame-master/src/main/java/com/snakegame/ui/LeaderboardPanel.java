@@ -15,15 +15,18 @@ public class LeaderboardPanel extends JPanel {
     private JPanel leaderboardContent;
     
     // Modern UI Colors
-    private final Color DARK_BG = new Color(15, 15, 25);
-    private final Color CARD_BG = new Color(25, 25, 40);
-    private final Color ACCENT_GREEN = new Color(0, 255, 150);
-    private final Color ACCENT_BLUE = new Color(100, 150, 255);
-    private final Color ACCENT_GOLD = new Color(255, 215, 0);
-    private final Color ACCENT_SILVER = new Color(192, 192, 192);
-    private final Color ACCENT_BRONZE = new Color(205, 127, 50);
-    private final Color TEXT_PRIMARY = new Color(240, 240, 255);
-    private final Color TEXT_SECONDARY = new Color(150, 150, 170);
+    private final Color DARK_BG = Theme.DARK_BG;
+    private final Color CARD_BG = Theme.CARD_BG;
+    private final Color ACCENT_GREEN = Theme.ACCENT_GREEN;
+    private final Color ACCENT_BLUE = Theme.ACCENT_BLUE;
+    private final Color ACCENT_GOLD = Theme.ACCENT_GOLD;
+    private final Color ACCENT_SILVER = Theme.ACCENT_SILVER;
+    private final Color ACCENT_BRONZE = Theme.ACCENT_BRONZE;
+    private final Color TEXT_PRIMARY = Theme.TEXT_PRIMARY;
+    private final Color TEXT_SECONDARY = Theme.TEXT_SECONDARY;
+    private static final Color[] TOP_3_BG = {
+        new Color(40, 35, 30), new Color(35, 35, 40), new Color(38, 30, 30)
+    };
     
     public LeaderboardPanel(FirestoreService firestoreService) {
         this.firestoreService = firestoreService;
@@ -73,19 +76,19 @@ public class LeaderboardPanel extends JPanel {
         titlePanel.setLayout(new BoxLayout(titlePanel, BoxLayout.Y_AXIS));
         
         JLabel titleLabel = new JLabel("🏆 LEADERBOARD");
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 20));
+        titleLabel.setFont(Theme.ui(Font.BOLD, 20));
         titleLabel.setForeground(TEXT_PRIMARY);
         titlePanel.add(titleLabel);
         
         JLabel subtitleLabel = new JLabel("Top players worldwide");
-        subtitleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        subtitleLabel.setFont(Theme.ui(Font.PLAIN, 12));
         subtitleLabel.setForeground(TEXT_SECONDARY);
         titlePanel.add(subtitleLabel);
         
         // Difficulty selector
         String[] difficulties = {"Easy", "Medium", "Hard", "Global"};
         difficultySelector = new JComboBox<>(difficulties);
-        difficultySelector.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        difficultySelector.setFont(Theme.ui(Font.BOLD, 12));
         difficultySelector.setPreferredSize(new Dimension(110, 35));
         difficultySelector.setFocusable(false);
         customizeComboBox(difficultySelector);
@@ -118,7 +121,7 @@ public class LeaderboardPanel extends JPanel {
                 JLabel label = (JLabel) super.getListCellRendererComponent(
                     list, value, index, isSelected, cellHasFocus);
                 
-                label.setFont(new Font("Segoe UI", Font.BOLD, 11));
+                label.setFont(Theme.ui(Font.BOLD, 11));
                 label.setBorder(new EmptyBorder(6, 10, 6, 10));
                 
                 if (isSelected) {
@@ -160,7 +163,7 @@ public class LeaderboardPanel extends JPanel {
         loadingPanel.setLayout(new BoxLayout(loadingPanel, BoxLayout.Y_AXIS));
         
         JLabel loadingLabel = new JLabel("⏳ Loading leaderboard...");
-        loadingLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        loadingLabel.setFont(Theme.ui(Font.PLAIN, 14));
         loadingLabel.setForeground(TEXT_SECONDARY);
         loadingLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
@@ -210,7 +213,7 @@ public class LeaderboardPanel extends JPanel {
         loadingPanel.setLayout(new BoxLayout(loadingPanel, BoxLayout.Y_AXIS));
         
         JLabel loadingLabel = new JLabel("⏳ Loading global leaderboard...");
-        loadingLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        loadingLabel.setFont(Theme.ui(Font.PLAIN, 14));
         loadingLabel.setForeground(TEXT_SECONDARY);
         loadingLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
@@ -261,12 +264,12 @@ public class LeaderboardPanel extends JPanel {
             emptyPanel.setLayout(new BoxLayout(emptyPanel, BoxLayout.Y_AXIS));
             
             JLabel emptyLabel = new JLabel("🎮 No scores yet");
-            emptyLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
+            emptyLabel.setFont(Theme.ui(Font.BOLD, 16));
             emptyLabel.setForeground(TEXT_PRIMARY);
             emptyLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
             
             JLabel subLabel = new JLabel("Be the first to play!");
-            subLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+            subLabel.setFont(Theme.ui(Font.PLAIN, 13));
             subLabel.setForeground(TEXT_SECONDARY);
             subLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
             
@@ -294,6 +297,8 @@ public class LeaderboardPanel extends JPanel {
     }
     
     private JPanel createLeaderboardEntry(Score score, int rank) {
+        // Gold, silver and bronze tints for the top 3
+        Color bgColor = rank == 1 ? TOP_3_BG[0] : rank == 2 ? TOP_3_BG[1] : rank == 3 ? TOP_3_BG[2] : Theme.PANEL_BG;
         JPanel entry = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
@@ -301,11 +306,6 @@ public class LeaderboardPanel extends JPanel {
                 g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
                 
                 // Background
-                Color bgColor = new Color(30, 30, 45);
-                if (rank == 1) bgColor = new Color(40, 35, 30); // Gold tint
-                else if (rank == 2) bgColor = new Color(35, 35, 40); // Silver tint
-                else if (rank == 3) bgColor = new Color(38, 30, 30); // Bronze tint
-                
                 g2d.setColor(bgColor);
                 g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 12, 12);
                 
@@ -314,7 +314,7 @@ public class LeaderboardPanel extends JPanel {
                     Color borderColor = rank == 1 ? ACCENT_GOLD : 
                                       rank == 2 ? ACCENT_SILVER : ACCENT_BRONZE;
                     g2d.setColor(borderColor);
-                    g2d.setStroke(new BasicStroke(2f));
+                    g2d.setStroke(Theme.STROKE_2);
                     g2d.drawRoundRect(1, 1, getWidth() - 2, getHeight() - 2, 12, 12);
                 }
             }
@@ -331,10 +331,10 @@ public class LeaderboardPanel extends JPanel {
         if (rank <= 3) {
             String medal = rank == 1 ? "🥇" : rank == 2 ? "🥈" : "🥉";
             rankLabel.setText(medal);
-            rankLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 24));
+            rankLabel.setFont(Theme.emoji(Font.PLAIN, 24));
         } else {
             rankLabel.setText("#" + rank);
-            rankLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
+            rankLabel.setFont(Theme.ui(Font.BOLD, 16));
             rankLabel.setForeground(TEXT_SECONDARY);
         }
         rankLabel.setPreferredSize(new Dimension(45, 40));
@@ -346,18 +346,18 @@ public class LeaderboardPanel extends JPanel {
         playerPanel.setLayout(new BoxLayout(playerPanel, BoxLayout.Y_AXIS));
         
         JLabel nameLabel = new JLabel(score.getUserName());
-        nameLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        nameLabel.setFont(Theme.ui(Font.BOLD, 14));
         nameLabel.setForeground(TEXT_PRIMARY);
         playerPanel.add(nameLabel);
         
         JLabel difficultyLabel = new JLabel(score.getDifficulty().getDisplayName());
-        difficultyLabel.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        difficultyLabel.setFont(Theme.ui(Font.PLAIN, 11));
         difficultyLabel.setForeground(score.getDifficulty().getColor());
         playerPanel.add(difficultyLabel);
         
         // Score
         JLabel scoreLabel = new JLabel(String.valueOf(score.getScore()));
-        scoreLabel.setFont(new Font("Segoe UI", Font.BOLD, 20));
+        scoreLabel.setFont(Theme.ui(Font.BOLD, 20));
         scoreLabel.setForeground(ACCENT_GREEN);
         scoreLabel.setPreferredSize(new Dimension(90, 40));
         scoreLabel.setHorizontalAlignment(SwingConstants.RIGHT);
@@ -377,12 +377,12 @@ public class LeaderboardPanel extends JPanel {
         errorPanel.setLayout(new BoxLayout(errorPanel, BoxLayout.Y_AXIS));
         
         JLabel errorLabel = new JLabel("❌ " + message);
-        errorLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
-        errorLabel.setForeground(new Color(255, 100, 100));
+        errorLabel.setFont(Theme.ui(Font.BOLD, 14));
+        errorLabel.setForeground(Theme.ACCENT_RED);
         errorLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
         JLabel retryLabel = new JLabel("Please check your connection");
-        retryLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        retryLabel.setFont(Theme.ui(Font.PLAIN, 12));
         retryLabel.setForeground(TEXT_SECONDARY);
         retryLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
@@ -400,26 +400,24 @@ public class LeaderboardPanel extends JPanel {
     
     private JPanel createModernCard(int width, int height) {
         JPanel card = new JPanel() {
+            private final Theme.Gradient cardGradient = new Theme.Gradient(CARD_BG, Theme.CARD_BG_END);
+            
             @Override
             protected void paintComponent(Graphics g) {
                 Graphics2D g2d = (Graphics2D) g;
                 g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
                 
                 // Shadow
-                g2d.setColor(new Color(0, 0, 0, 70));
+                g2d.setColor(Theme.alpha(Color.BLACK, 70));
                 g2d.fillRoundRect(4, 4, getWidth() - 4, getHeight() - 4, 20, 20);
                 
                 // Card background
-                GradientPaint cardGradient = new GradientPaint(
-                    0, 0, CARD_BG,
-                    0, getHeight(), new Color(30, 30, 50)
-                );
-                g2d.setPaint(cardGradient);
+                g2d.setPaint(cardGradient.at(0, 0, 0, getHeight()));
                 g2d.fillRoundRect(0, 0, getWidth() - 4, getHeight() - 4, 20, 20);
                 
                 // Border
-                g2d.setColor(new Color(ACCENT_BLUE.getRed(), ACCENT_BLUE.getGreen(), ACCENT_BLUE.getBlue(), 80));
-                g2d.setStroke(new BasicStroke(1.5f));
+                g2d.setColor(Theme.alpha(ACCENT_BLUE, 80));
+                g2d.setStroke(Theme.STROKE_1_5);
                 g2d.drawRoundRect(1, 1, getWidth() - 6, getHeight() - 6, 20, 20);
             }
         };
@@ -436,8 +434,8 @@ public class LeaderboardPanel extends JPanel {
     private class ModernScrollBarUI extends javax.swing.plaf.basic.BasicScrollBarUI {
         @Override
         protected void configureScrollBarColors() {
-            this.thumbColor = new Color(100, 150, 255, 100);
-            this.trackColor = new Color(30, 30, 45);
+            this.thumbColor = Theme.alpha(Theme.ACCENT_BLUE, 100);
+            this.trackColor = Theme.PANEL_BG;
         }
         
         @Override
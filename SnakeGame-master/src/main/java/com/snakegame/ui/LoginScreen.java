@@ -34,7 +34,7 @@ public class LoginScreen extends JPanel {
     
     // Animation
     private float pulseAnimation = 0f;
-    private Timer animationTimer;
+    private AnimationScheduler.Registration animation;
 
     public LoginScreen(JFrame parentFrame) {
         this.parentFrame = parentFrame;
@@ -49,14 +49,13 @@ public class LoginScreen extends JPanel {
     }
     
     private void startAnimation() {
-        animationTimer = new Timer(50, e -> {
+        animation = AnimationScheduler.shared().register(this, () -> {
             pulseAnimation += 0.05f;
             if (pulseAnimation > Math.PI * 2) {
                 pulseAnimation = 0f;
             }
             repaint();
         });
-        animationTimer.start();
     }
     
     @Override
@@ -411,7 +410,7 @@ public class LoginScreen extends JPanel {
     }
 
     private void openDashboard(User user) {
-        animationTimer.stop();
+        animation.cancel();
         parentFrame.getContentPane().removeAll();
         
         DashboardScreen dashboard = new DashboardScreen(parentFrame, user);
@@ -0,0 +1,156 @@
+package com.snakegame.ui;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pre-rendered text, so strings that are drawn every frame are laid out and
+ * rasterized once and then blitted. Images are keyed by (text, font, color)
+ * and the least recently drawn ones are dropped past {@code maxEntries}.
+ *
+ * Numbers are composed from one cached image per digit, so a changing score
+ * does not fill the cache with one image per value.
+ */
+public class TextCache {
+    private static final String[] DIGITS = {"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"};
+    private static final String MINUS = "-";
+
+    private final Map<Key, Entry> entries;
+    // Reused for lookups so a cache hit allocates nothing
+    private final Key probe = new Key();
+
+    public TextCache(int maxEntries) {
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Draws text like {@link Graphics2D#drawString(String, int, int)}, with
+     * the baseline of its first character at (x, y).
+     */
+    public synchronized void draw(Graphics2D g, String text, Font font, Color color, int x, int y) {
+        Entry entry = lookup(g, text, font, color);
+        g.drawImage(entry.image, x - entry.padding, y - entry.ascent - entry.padding, null);
+    }
+
+    /**
+     * Draws a whole number digit by digit, as drawString would lay it out.
+     */
+    public synchronized void drawNumber(Graphics2D g, int value, Font font, Color color, int x, int y) {
+        if (value < 0) {
+            x += drawGlyph(g, MINUS, font, color, x, y);
+        }
+        long remaining = Math.abs((long) value);
+        long divisor = 1;
+        while (divisor * 10 <= remaining) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            x += drawGlyph(g, DIGITS[(int) (remaining / divisor % 10)], font, color, x, y);
+        }
+    }
+
+    /**
+     * @return the width {@link #drawNumber} will take, for centering
+     */
+    public static int numberWidth(int value, Font font) {
+        FontMetrics metrics = Theme.metrics(font);
+        int width = value < 0 ? metrics.charWidth('-') : 0;
+        long remaining = Math.abs((long) value);
+        do {
+            width += metrics.charWidth((char) ('0' + remaining % 10));
+            remaining /= 10;
+        } while (remaining > 0);
+        return width;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private int drawGlyph(Graphics2D g, String glyph, Font font, Color color, int x, int y) {
+        Entry entry = lookup(g, glyph, font, color);
+        g.drawImage(entry.image, x - entry.padding, y - entry.ascent - entry.padding, null);
+        return entry.advance;
+    }
+
+    private Entry lookup(Graphics2D g, String text, Font font, Color color) {
+        probe.set(text, font, color);
+        Entry entry = entries.get(probe);
+        if (entry == null) {
+            entry = render(g.getDeviceConfiguration(), text, font, color);
+            Key key = new Key();
+            key.set(text, font, color);
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    private static Entry render(GraphicsConfiguration configuration, String text, Font font, Color color) {
+        FontMetrics metrics = Theme.metrics(font);
+        // Glyphs such as italics and emoji can reach past their advance
+        int padding = Math.max(2, font.getSize() / 4);
+        int advance = metrics.stringWidth(text);
+        int width = Math.max(1, advance + 2 * padding);
+        int height = metrics.getAscent() + metrics.getDescent() + 2 * padding;
+
+        BufferedImage image = configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(font);
+            g.setColor(color);
+            g.drawString(text, padding, padding + metrics.getAscent());
+        } finally {
+            g.dispose();
+        }
+        return new Entry(image, padding, metrics.getAscent(), advance);
+    }
+
+    private static final class Entry {
+        final BufferedImage image;
+        final int padding;
+        final int ascent;
+        final int advance;
+
+        Entry(BufferedImage image, int padding, int ascent, int advance) {
+            this.image = image;
+            this.padding = padding;
+            this.ascent = ascent;
+            this.advance = advance;
+        }
+    }
+
+    private static final class Key {
+        private String text;
+        private Font font;
+        private Color color;
+
+        void set(String text, Font font, Color color) {
+            this.text = text;
+            this.font = font;
+            this.color = color;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return text.equals(other.text) && font.equals(other.font) && color.equals(other.color);
+        }
+
+        @Override
+        public int hashCode() {
+            // Not Objects.hash, which would allocate an array per lookup
+            return (text.hashCode() * 31 + font.hashCode()) * 31 + color.hashCode();
+        }
+    }
+}
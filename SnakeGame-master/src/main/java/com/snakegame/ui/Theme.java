@@ -0,0 +1,162 @@
+package com.snakegame.ui;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Colors, fonts, strokes and font metrics shared by every screen, created
+ * once so paint methods can look them up instead of allocating new ones on
+ * each frame. Lookups are meant for the EDT and the game loop thread, which
+ * never paint at the same time, but are synchronized so either may run first.
+ */
+public final class Theme {
+    // Palette
+    public static final Color DARK_BG = new Color(15, 15, 25);
+    public static final Color DARK_BG_END = new Color(20, 20, 35);
+    public static final Color CARD_BG = new Color(25, 25, 40);
+    public static final Color CARD_BG_END = new Color(30, 30, 50);
+    public static final Color PANEL_BG = new Color(30, 30, 45);
+    public static final Color ACCENT_GREEN = new Color(0, 255, 150);
+    public static final Color ACCENT_BLUE = new Color(100, 150, 255);
+    public static final Color ACCENT_PURPLE = new Color(150, 100, 255);
+    public static final Color ACCENT_RED = new Color(255, 100, 100);
+    public static final Color ACCENT_GOLD = new Color(255, 215, 0);
+    public static final Color ACCENT_SILVER = new Color(192, 192, 192);
+    public static final Color ACCENT_BRONZE = new Color(205, 127, 50);
+    public static final Color TEXT_PRIMARY = new Color(240, 240, 255);
+    public static final Color TEXT_SECONDARY = new Color(150, 150, 170);
+
+    // Strokes
+    public static final BasicStroke STROKE_1 = new BasicStroke(1f);
+    public static final BasicStroke STROKE_1_5 = new BasicStroke(1.5f);
+    public static final BasicStroke STROKE_2 = new BasicStroke(2f);
+    public static final BasicStroke STROKE_2_5 = new BasicStroke(2.5f);
+    public static final BasicStroke STROKE_3 = new BasicStroke(3f);
+    public static final BasicStroke STROKE_4 = new BasicStroke(4f);
+
+    public static final String UI_FONT = "Segoe UI";
+    public static final String EMOJI_FONT = "Segoe UI Emoji";
+    public static final String MONO_FONT = Font.MONOSPACED;
+
+    private static final int MAX_FONT_SIZE = 200;
+    private static final int SHADE_STEPS = 64;
+
+    // Indexed [family][style][size]; PLAIN, BOLD, ITALIC and BOLD|ITALIC are 0-3
+    private static final Font[][][] fonts = new Font[3][4][MAX_FONT_SIZE + 1];
+    private static final Map<Font, FontMetrics> metrics = new HashMap<>();
+    private static final Map<Color, Color[]> alphaVariants = new HashMap<>();
+    private static final Map<Color, Color[]> shadeVariants = new HashMap<>();
+
+    // Metrics are taken with text antialiasing on, as every screen paints with it
+    private static final Graphics2D metricsGraphics;
+
+    static {
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        metricsGraphics = scratch.createGraphics();
+        metricsGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        metricsGraphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    }
+
+    private Theme() {
+    }
+
+    /**
+     * @param style a {@link Font} style constant
+     */
+    public static Font ui(int style, int size) {
+        return font(0, UI_FONT, style, size);
+    }
+
+    public static Font emoji(int style, int size) {
+        return font(1, EMOJI_FONT, style, size);
+    }
+
+    public static Font mono(int style, int size) {
+        return font(2, MONO_FONT, style, size);
+    }
+
+    private static synchronized Font font(int family, String name, int style, int size) {
+        Font font = fonts[family][style][size];
+        if (font == null) {
+            font = new Font(name, style, size);
+            fonts[family][style][size] = font;
+        }
+        return font;
+    }
+
+    public static synchronized FontMetrics metrics(Font font) {
+        FontMetrics fontMetrics = metrics.get(font);
+        if (fontMetrics == null) {
+            fontMetrics = metricsGraphics.getFontMetrics(font);
+            metrics.put(font, fontMetrics);
+        }
+        return fontMetrics;
+    }
+
+    /**
+     * @return the color with its alpha replaced, 0 to 255
+     */
+    public static synchronized Color alpha(Color color, int alpha) {
+        Color[] variants = alphaVariants.get(color);
+        if (variants == null) {
+            variants = new Color[256];
+            alphaVariants.put(color, variants);
+        }
+        Color variant = variants[alpha];
+        if (variant == null) {
+            variant = new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha);
+            variants[alpha] = variant;
+        }
+        return variant;
+    }
+
+    /**
+     * For pulsing effects: the color with each channel scaled by a factor
+     * from 0 to 1, quantized to {@value #SHADE_STEPS} steps.
+     */
+    public static synchronized Color shade(Color color, double factor) {
+        Color[] variants = shadeVariants.get(color);
+        if (variants == null) {
+            variants = new Color[SHADE_STEPS + 1];
+            shadeVariants.put(color, variants);
+        }
+        int step = (int) Math.round(Math.max(0, Math.min(1, factor)) * SHADE_STEPS);
+        Color variant = variants[step];
+        if (variant == null) {
+            float scale = (float) step / SHADE_STEPS;
+            variant = new Color((int) (color.getRed() * scale), (int) (color.getGreen() * scale),
+                    (int) (color.getBlue() * scale));
+            variants[step] = variant;
+        }
+        return variant;
+    }
+
+    /**
+     * A two-color gradient that is only rebuilt when its end points move,
+     * for components whose gradient follows their size. One per component.
+     */
+    public static final class Gradient {
+        private final Color start;
+        private final Color end;
+        private GradientPaint paint;
+        private float x1, y1, x2, y2;
+
+        public Gradient(Color start, Color end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public GradientPaint at(float x1, float y1, float x2, float y2) {
+            if (paint == null || x1 != this.x1 || y1 != this.y1 || x2 != this.x2 || y2 != this.y2) {
+                paint = new GradientPaint(x1, y1, start, x2, y2, end);
+                this.x1 = x1;
+                this.y1 = y1;
+                this.x2 = x2;
+                this.y2 = y2;
+            }
+            return paint;
+        }
+    }
+}
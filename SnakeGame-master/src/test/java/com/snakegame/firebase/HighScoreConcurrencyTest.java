@@ -0,0 +1,93 @@
+package com.snakegame.firebase;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Concurrent score submissions for one user must lose no updates. Each of
+ * 100 threads plays a separate client with its own {@link ScoreWriteQueue},
+ * and all of them submit a score for the same user at once. Afterwards games
+ * played must have gone up by exactly 100, and the high score must be the
+ * best submitted.
+ *
+ * Runs against the Firestore emulator only, never a real project, and is
+ * skipped unless one is configured:
+ *   firebase emulators:start --only firestore
+ *   FIRESTORE_EMULATOR_HOST=localhost:8080 gradle test --tests '*HighScoreConcurrencyTest'
+ */
+@EnabledIfEnvironmentVariable(named = "FIRESTORE_EMULATOR_HOST", matches = ".+")
+class HighScoreConcurrencyTest {
+    private static final int SUBMISSIONS = 100;
+
+    private static Firestore db;
+
+    @BeforeAll
+    static void connect() {
+        db = FirestoreOptions.newBuilder()
+                .setProjectId("demo-snake-game")
+                .setEmulatorHost(System.getenv("FIRESTORE_EMULATOR_HOST"))
+                .build()
+                .getService();
+    }
+
+    @AfterAll
+    static void disconnect() throws Exception {
+        db.close();
+    }
+
+    @Test
+    void parallelSubmissionsLoseNoUpdates() throws Exception {
+        DocumentReference userRef = db.collection("users").document("concurrency-test-" + System.nanoTime());
+        Map<String, Object> user = new HashMap<>();
+        user.put("username", "concurrency-test");
+        user.put("highScore", 0);
+        user.put("totalGamesPlayed", 0);
+        userRef.set(user).get();
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        Thread[] clients = new Thread[SUBMISSIONS];
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            // Scores in shuffled order, so the best one does not come last
+            int score = (i * 37) % SUBMISSIONS + 1;
+            clients[i] = new Thread(() -> {
+                ScoreWriteQueue queue = new ScoreWriteQueue(db, 1, 0);
+                try {
+                    Map<String, Object> scoreData = new HashMap<>();
+                    scoreData.put("userId", userRef.getId());
+                    scoreData.put("score", score);
+                    start.await();
+                    queue.enqueue(db.collection("scores").document(), scoreData, userRef.getId(), score);
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    queue.close();
+                }
+            });
+            clients[i].start();
+        }
+
+        start.countDown();
+        for (Thread client : clients) {
+            client.join();
+        }
+
+        DocumentSnapshot result = userRef.get().get();
+        assertEquals(0, failures.get(), "submissions that failed to queue");
+        assertEquals(SUBMISSIONS, result.getLong("totalGamesPlayed"), "totalGamesPlayed");
+        assertEquals(SUBMISSIONS, result.getLong("highScore"), "highScore");
+    }
+}
@@ -0,0 +1,171 @@
+package com.snakegame.firebase;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.snakegame.models.Difficulty;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the document reads each leaderboard query costs. Firestore bills a
+ * query per document returned, at least one, so the test seeds a score
+ * history where a few users play most of the games, through the same
+ * {@link ScoreWrite#commitAll} the game uses, then runs the real queries and
+ * counts what they return: the raw-score query the global board falls back
+ * to, {@link UserBest#top}, and the {@link LeaderboardDocument} of each
+ * difficulty. The index has to fill the board with one read per user shown,
+ * and show the same users a full scan of the scores would.
+ *
+ * Runs against the Firestore emulator only, never a real project, and is
+ * skipped unless one is configured:
+ *   firebase emulators:start --only firestore
+ *   FIRESTORE_EMULATOR_HOST=localhost:8080 gradle test --tests '*LeaderboardReadsTest' -i
+ */
+@EnabledIfEnvironmentVariable(named = "FIRESTORE_EMULATOR_HOST", matches = ".+")
+class LeaderboardReadsTest {
+    private static final int USERS = 150;
+    private static final int GAMES = 1500;
+    private static final double SKEW = 1.2;
+    private static final int SCORES_PER_COMMIT = 50;
+    private static final int[] LIMITS = {10, 20, 50, 100};
+
+    private static Firestore db;
+    // Each user's best score, as a scan of every stored score would find it
+    private static final int[] best = new int[USERS];
+
+    @BeforeAll
+    static void seed() throws Exception {
+        // A project of its own, so earlier runs leave nothing behind
+        db = FirestoreOptions.newBuilder()
+                .setProjectId("demo-leaderboard-reads-" + System.nanoTime())
+                .setEmulatorHost(System.getenv("FIRESTORE_EMULATOR_HOST"))
+                .build()
+                .getService();
+
+        for (int user = 0; user < USERS; user++) {
+            Map<String, Object> userData = new HashMap<>();
+            userData.put("username", "player" + user);
+            userData.put("highScore", 0);
+            userData.put("totalGamesPlayed", 0);
+            db.collection("users").document(userId(user)).set(userData).get();
+        }
+
+        // Zipf-distributed players: the user of rank r plays in proportion
+        // to 1 / r^skew, and frequent players also score a little higher
+        Random random = new Random(1);
+        double[] cumulative = new double[USERS];
+        double total = 0;
+        for (int user = 0; user < USERS; user++) {
+            total += 1 / Math.pow(user + 1, SKEW);
+            cumulative[user] = total;
+        }
+
+        Arrays.fill(best, -1);
+        Difficulty[] difficulties = Difficulty.values();
+        List<ScoreWrite> batch = new ArrayList<>();
+        for (int game = 0; game < GAMES; game++) {
+            int at = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            int user = at >= 0 ? at : Math.min(-at - 1, USERS - 1);
+            int score = (int) (random.nextDouble() * 100_000 / (1 + Math.log(user + 1) / 50));
+            best[user] = Math.max(best[user], score);
+
+            Map<String, Object> scoreData = new HashMap<>();
+            scoreData.put("userId", userId(user));
+            scoreData.put("userName", "player" + user);
+            scoreData.put("avatarUrl", null);
+            scoreData.put("score", score);
+            scoreData.put("difficulty", difficulties[random.nextInt(difficulties.length)].name());
+            scoreData.put("timestamp", new Date());
+            batch.add(new ScoreWrite(db.collection("scores").document(), scoreData, userId(user), score));
+            if (batch.size() == SCORES_PER_COMMIT) {
+                ScoreWrite.commitAll(db, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            ScoreWrite.commitAll(db, batch);
+        }
+    }
+
+    @AfterAll
+    static void disconnect() throws Exception {
+        db.close();
+    }
+
+    @Test
+    void userBestIndexFillsTheBoardWithOneReadPerUser() throws Exception {
+        int players = 0;
+        for (int score : best) {
+            if (score >= 0) players++;
+        }
+        int[] bestDescending = Arrays.stream(best).filter(score -> score >= 0)
+                .boxed().sorted((a, b) -> b - a).mapToInt(Integer::intValue).toArray();
+
+        System.out.printf("%d games by %d users, skew %.2f%n", GAMES, players, SKEW);
+        System.out.printf("%-6s %-32s %-24s%n", "limit", "raw scores, top limit*3", "userBest index");
+        for (int limit : LIMITS) {
+            // The fallback query: limit * 3 documents, whatever users they hold
+            QuerySnapshot raw = db.collection("scores")
+                .orderBy("score", Query.Direction.DESCENDING)
+                .limit(limit * 3)
+                .get().get();
+            Set<String> rawUsers = new HashSet<>();
+            for (QueryDocumentSnapshot document : raw.getDocuments()) {
+                rawUsers.add(document.getString("userId"));
+            }
+
+            QuerySnapshot indexed = UserBest.top(db, limit).get().get();
+            Set<String> indexedUsers = new HashSet<>();
+            for (int i = 0; i < indexed.size(); i++) {
+                QueryDocumentSnapshot document = indexed.getDocuments().get(i);
+                indexedUsers.add(document.getString("userId"));
+                assertEquals(bestDescending[i], document.getLong("score").intValue(),
+                        "rank " + (i + 1) + " of the top " + limit);
+            }
+
+            int shown = Math.min(limit, players);
+            System.out.printf("%-6d %-32s %-24s%n", limit,
+                    String.format("%d reads, %d/%d users", Math.max(raw.size(), 1),
+                            Math.min(rawUsers.size(), limit), limit),
+                    String.format("%d reads, %d/%d users", Math.max(indexed.size(), 1),
+                            indexedUsers.size(), limit));
+
+            assertEquals(shown, indexed.size(), "userBest reads for the top " + limit);
+            assertEquals(shown, indexedUsers.size(), "users on the top " + limit);
+        }
+    }
+
+    @Test
+    void difficultyBoardIsOneRead() throws Exception {
+        for (Difficulty difficulty : Difficulty.values()) {
+            DocumentSnapshot board = LeaderboardDocument.ref(db, difficulty.name()).get().get();
+            int entries = LeaderboardDocument.entries(board).size();
+            System.out.printf("%s board: 1 read for %d scores%n", difficulty, entries);
+            assertTrue(board.exists(), difficulty + " board exists");
+            assertTrue(entries > 0 && entries <= LeaderboardDocument.SIZE, entries + " entries");
+        }
+    }
+
+    private static String userId(int user) {
+        return "reads-test-" + user;
+    }
+}
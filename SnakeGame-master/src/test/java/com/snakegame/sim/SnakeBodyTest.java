@@ -0,0 +1,88 @@
+package com.snakegame.sim;
+
+import com.snakegame.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The occupancy counts must answer exactly what a segment-by-segment scan of
+ * the body would. Random walks on small boards, with reversals and growth,
+ * run into themselves often, and keep going after they do.
+ */
+class SnakeBodyTest {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Test
+    void selfCollisionMatchesLinearScan() {
+        Random random = new Random(42);
+        int collisions = 0;
+        for (int walk = 0; walk < 200; walk++) {
+            int columns = 4 + random.nextInt(12);
+            int rows = 4 + random.nextInt(12);
+            SnakeBody body = new SnakeBody(columns, rows, columns / 2, rows / 2);
+            for (int step = 0; step < 500; step++) {
+                if (random.nextInt(3) == 0) {
+                    body.setDirection(DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+                }
+                if (random.nextInt(4) == 0) {
+                    body.grow();
+                }
+                body.move();
+                if (!body.isHeadOnBoard()) break;
+
+                boolean expected = scanSelfCollision(body);
+                assertEquals(expected, body.checkSelfCollision(), "walk " + walk + " step " + step);
+                if (expected) collisions++;
+            }
+        }
+        // Make sure the walks actually exercised the colliding case
+        assertTrue(collisions > 100, collisions + " collisions");
+    }
+
+    @Test
+    void occupancyMatchesLinearScan() {
+        Random random = new Random(7);
+        int columns = 10;
+        int rows = 8;
+        SnakeBody body = new SnakeBody(columns, rows, columns / 2, rows / 2);
+        for (int step = 0; step < 2000; step++) {
+            body.setDirection(DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+            if (random.nextInt(3) == 0) {
+                body.grow();
+            }
+            body.move();
+            if (!body.isHeadOnBoard()) {
+                body.reset(columns / 2, rows / 2);
+                continue;
+            }
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    assertEquals(scanOccupied(body, column, row), body.isOccupied(column, row),
+                            "cell " + column + "," + row + " at step " + step);
+                }
+            }
+        }
+    }
+
+    private static boolean scanSelfCollision(SnakeBody body) {
+        for (int i = 1; i < body.size(); i++) {
+            if (body.columnAt(i) == body.headColumn() && body.rowAt(i) == body.headRow()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean scanOccupied(SnakeBody body, int column, int row) {
+        for (int i = 0; i < body.size(); i++) {
+            if (body.columnAt(i) == column && body.rowAt(i) == row) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
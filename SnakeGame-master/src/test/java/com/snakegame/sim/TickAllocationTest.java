@@ -0,0 +1,61 @@
+package com.snakegame.sim;
+
+import com.snakegame.models.Difficulty;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The tick path must not allocate in steady state. Plays back-to-back games
+ * on one reset-in-place {@link GameSimulation}, as {@link HeadlessRunner}
+ * does, and reads the thread's allocation counter around a few million
+ * ticks once the JIT has settled.
+ */
+class TickAllocationTest {
+    private static final long WARMUP_TICKS = 2_000_000;
+    private static final long MEASURED_TICKS = 5_000_000;
+    // Cuts off a game that never ends, so a policy that circles cannot hang the test
+    private static final long MAX_TICKS_PER_GAME = 100_000;
+    // Room for the counter reads themselves; a single small object per tick
+    // would come to some 16 MB per million ticks
+    private static final long MAX_BYTES_PER_MILLION_TICKS = 1024;
+
+    @Test
+    void steadyStateTicksDoNotAllocate() {
+        Policy policy = new GreedyPolicy();
+        GameSimulation game = new GameSimulation(40, 30, Difficulty.EASY.getPointsPerFood(), 80, 0);
+        long seed = 1;
+
+        long ticks = 0;
+        while (ticks < WARMUP_TICKS) {
+            game.reset(seed++);
+            ticks += playOut(game, policy);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+
+        ticks = 0;
+        while (ticks < MEASURED_TICKS) {
+            game.reset(seed++);
+            ticks += playOut(game, policy);
+        }
+
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        double perMillionTicks = allocated * 1e6 / ticks;
+        assertTrue(perMillionTicks <= MAX_BYTES_PER_MILLION_TICKS,
+                String.format("%.1f bytes allocated per 1M ticks (%d bytes over %d ticks)",
+                        perMillionTicks, allocated, ticks));
+    }
+
+    private static long playOut(GameSimulation game, Policy policy) {
+        while (!game.isGameOver() && game.getTicks() < MAX_TICKS_PER_GAME) {
+            game.step(policy.choose(game));
+        }
+        return game.getTicks();
+    }
+}